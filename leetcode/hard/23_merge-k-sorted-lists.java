@@ -1,31 +1,117 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Definition for singly-linked list.
+ * public class ListNode {
+ *     int val;
+ *     ListNode next;
+ *     ListNode() {}
+ *     ListNode(int val) { this.val = val; }
+ *     ListNode(int val, ListNode next) { this.val = val; this.next = next; }
+ * }
+ */
+
+// Strategy is picked from one cheap pass over the input (node count, min, max, non-empty lists):
+//  - BUCKET:             value range is dense (range <= DENSITY_FACTOR * nodes), O(n + range)
+//  - TOURNAMENT:         sparse / wide range with many lists, loser tree, O(n log k), O(k) extra memory
+//  - DIVIDE_AND_CONQUER: sparse with few lists, pairwise merges, O(n log k), O(1) extra memory
+// All strategies are stable: equal values keep list order, then in-list order.
+//
+// mergeKListsParallel splits the lists into index ranges of at most `cutoff` lists,
+// merges each range sequentially on a ForkJoinPool and combines partial results
+// pairwise up the task tree (left range wins ties), so output equals mergeKLists.
 class Solution {
 
+    enum MergeStrategy {
+        EMPTY,
+        BUCKET,
+        TOURNAMENT,
+        DIVIDE_AND_CONQUER,
+        // reported by mergeKListsParallel; each task picks its own sequential strategy
+        PARALLEL,
+    }
+
+    static final int DENSITY_FACTOR = 2;
+    static final int TOURNAMENT_MIN_LISTS = 16;
+    static final int DEFAULT_PARALLEL_CUTOFF = 64;
+
+    private MergeStrategy lastStrategy = MergeStrategy.EMPTY;
+
     public ListNode mergeKLists(ListNode[] lists) {
-        int len = lists.length;
-        if (len == 0) return null;
+        ListStats stats = ListStats.of(lists);
+        lastStrategy = stats.strategy();
+        return merge(lists, stats);
+    }
 
-        int min = Integer.MAX_VALUE;
-        int max = Integer.MIN_VALUE;
+    public ListNode mergeKListsParallel(ListNode[] lists) {
+        return mergeKListsParallel(lists, DEFAULT_PARALLEL_CUTOFF, ForkJoinPool.commonPool());
+    }
 
-        for (ListNode list : lists) {
-            while (list != null) {
-                int val = list.val;
-                max = Math.max(max, val);
-                min = Math.min(min, val);
-                list = list.next;
-            }
+    public ListNode mergeKListsParallel(ListNode[] lists, int sequentialCutoff, ForkJoinPool pool) {
+        if (sequentialCutoff < 1) throw new IllegalArgumentException("sequentialCutoff must be >= 1");
+        if (lists.length <= sequentialCutoff) return mergeKLists(lists);
+        lastStrategy = MergeStrategy.PARALLEL;
+        return pool.invoke(new MergeTask(lists, 0, lists.length, sequentialCutoff));
+    }
+
+    static ListNode merge(ListNode[] lists, MergeStrategy strategy) {
+        switch (strategy) {
+            case BUCKET:
+                return bucketMerge(lists);
+            case TOURNAMENT:
+                return tournamentMerge(lists);
+            case DIVIDE_AND_CONQUER:
+                return divideAndConquerMerge(lists);
+            case PARALLEL:
+                throw new IllegalArgumentException("PARALLEL is not a sequential strategy");
+            default:
+                return null;
         }
+    }
+
+    // strategy used by the last mergeKLists or mergeKListsParallel call
+    public MergeStrategy lastStrategy() {
+        return lastStrategy;
+    }
+
+    public static MergeStrategy chooseStrategy(ListNode[] lists) {
+        return ListStats.of(lists).strategy();
+    }
+
+    // reuses the min/max of the stats pass, so BUCKET does not rescan the lists
+    static ListNode merge(ListNode[] lists, ListStats stats) {
+        MergeStrategy strategy = stats.strategy();
+        if (strategy == MergeStrategy.BUCKET) return bucketMerge(lists, stats.min, stats.max);
+        return merge(lists, strategy);
+    }
 
-        int range = max - min + 1;
-        ListNode bucketList[] = new ListNode[range];
+    static ListNode bucketMerge(ListNode[] lists) {
+        ListStats stats = ListStats.of(lists);
+        return bucketMerge(lists, stats.min, stats.max);
+    }
+
+    static ListNode bucketMerge(ListNode[] lists, int min, int max) {
+        if (min > max) return null;
+
+        int range = (int) ((long) max - min + 1);
+        // heads + tails so each bucket keeps insertion order (stable)
+        ListNode[] bucketHeads = new ListNode[range];
+        ListNode[] bucketTails = new ListNode[range];
 
         for (ListNode list : lists) {
             while (list != null) {
                 ListNode nextNode = list.next;
+                list.next = null;
 
-                int bucketIdx = list.val - min;
-                list.next = bucketList[bucketIdx];
-                bucketList[bucketIdx] = list;
+                int bucketIdx = (int) ((long) list.val - min);
+                if (bucketHeads[bucketIdx] == null) bucketHeads[bucketIdx] = list;
+                else bucketTails[bucketIdx].next = list;
+                bucketTails[bucketIdx] = list;
 
                 list = nextNode;
             }
@@ -34,14 +120,510 @@ class Solution {
         ListNode newHead = new ListNode(0);
         ListNode dummy = newHead;
 
-        for (ListNode list : bucketList) {
-            dummy.next = list;
+        for (int i = 0; i < range; i++) {
+            if (bucketHeads[i] == null) continue;
+            dummy.next = bucketHeads[i];
+            dummy = bucketTails[i];
+        }
+
+        return newHead.next;
+    }
+
+    static ListNode tournamentMerge(ListNode[] lists) {
+        if (lists.length == 0) return null;
+        LoserTree tree = new LoserTree(lists);
+
+        ListNode newHead = new ListNode(0);
+        ListNode tail = newHead;
+        ListNode node;
+        while ((node = tree.pop()) != null) {
+            tail.next = node;
+            tail = node;
+        }
+        tail.next = null;
+        return newHead.next;
+    }
+
+    static ListNode divideAndConquerMerge(ListNode[] lists) {
+        int len = lists.length;
+        if (len == 0) return null;
+        ListNode[] work = lists.clone();
 
-            while (dummy.next != null) {
-                dummy = dummy.next;
+        // bottom-up: merge neighbours at distance step, left side wins ties
+        for (int step = 1; step < len; step <<= 1) {
+            for (int i = 0; i + step < len; i += step << 1) {
+                work[i] = mergeTwo(work[i], work[i + step]);
             }
         }
+        return work[0];
+    }
 
+    static ListNode mergeTwo(ListNode a, ListNode b) {
+        ListNode newHead = new ListNode(0);
+        ListNode tail = newHead;
+        while (a != null && b != null) {
+            if (b.val < a.val) {
+                tail.next = b;
+                b = b.next;
+            } else {
+                tail.next = a;
+                a = a.next;
+            }
+            tail = tail.next;
+        }
+        tail.next = a != null ? a : b;
         return newHead.next;
     }
+
+    // one pass over every node: what chooseStrategy needs, plus min/max for bucketMerge
+    static final class ListStats {
+
+        long count;
+        int nonEmpty;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        static ListStats of(ListNode[] lists) {
+            ListStats stats = new ListStats();
+            for (ListNode list : lists) {
+                if (list != null) stats.nonEmpty++;
+                while (list != null) {
+                    int val = list.val;
+                    stats.max = Math.max(stats.max, val);
+                    stats.min = Math.min(stats.min, val);
+                    stats.count++;
+                    list = list.next;
+                }
+            }
+            return stats;
+        }
+
+        MergeStrategy strategy() {
+            if (count == 0) return MergeStrategy.EMPTY;
+            // long arithmetic: MAX_VALUE - MIN_VALUE overflows int
+            long range = (long) max - min + 1;
+            if (range <= DENSITY_FACTOR * count && range <= Integer.MAX_VALUE - 8) {
+                return MergeStrategy.BUCKET;
+            }
+            return nonEmpty >= TOURNAMENT_MIN_LISTS ? MergeStrategy.TOURNAMENT : MergeStrategy.DIVIDE_AND_CONQUER;
+        }
+    }
+
+    static final class MergeTask extends RecursiveTask<ListNode> {
+
+        private final ListNode[] lists;
+        private final int lo;
+        private final int hi;
+        private final int cutoff;
+
+        MergeTask(ListNode[] lists, int lo, int hi, int cutoff) {
+            this.lists = lists;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected ListNode compute() {
+            if (hi - lo <= cutoff) {
+                ListNode[] range = Arrays.copyOfRange(lists, lo, hi);
+                return merge(range, ListStats.of(range));
+            }
+            int mid = (lo + hi) >>> 1;
+            MergeTask left = new MergeTask(lists, lo, mid, cutoff);
+            MergeTask right = new MergeTask(lists, mid, hi, cutoff);
+            right.fork();
+            ListNode leftResult = left.compute();
+            return mergeTwo(leftResult, right.join());
+        }
+    }
+
+    /**
+     * Loser tree over k list heads. tree[0] holds the current winner,
+     * tree[1..k-1] the loser of each internal match. Ties go to the lower list index.
+     */
+    static final class LoserTree {
+
+        private final ListNode[] heads;
+        private final int[] tree;
+        private final int k;
+
+        LoserTree(ListNode[] lists) {
+            this.k = lists.length;
+            this.heads = lists.clone();
+            this.tree = new int[k];
+            // index k is a virtual player that beats everyone, so each real leaf
+            // replays its path once and the virtual entries are pushed out
+            Arrays.fill(tree, k);
+            for (int i = k - 1; i >= 0; i--) adjust(i);
+        }
+
+        ListNode pop() {
+            int winner = tree[0];
+            ListNode node = heads[winner];
+            if (node == null) return null;
+            heads[winner] = node.next;
+            adjust(winner);
+            return node;
+        }
+
+        private void adjust(int player) {
+            for (int t = (player + k) >> 1; t > 0; t >>= 1) {
+                if (beats(tree[t], player)) {
+                    int loser = player;
+                    player = tree[t];
+                    tree[t] = loser;
+                }
+            }
+            tree[0] = player;
+        }
+
+        private boolean beats(int a, int b) {
+            if (a == k) return true;
+            if (b == k) return false;
+            ListNode x = heads[a];
+            ListNode y = heads[b];
+            if (x == null) return false;
+            if (y == null) return true;
+            if (x.val != y.val) return x.val < y.val;
+            return a < b;
+        }
+    }
+}
+
+/**
+ * Same stable k-way merge as Solution.tournamentMerge, but over sorted runs on disk:
+ * each run is a binary file of big-endian ints or longs, read through FileChannel.map
+ * windows of at most windowBytes, so heap use is O(k) regardless of file size.
+ * Iterating yields the merged values; mergeToFile writes them to a mapped output file.
+ */
+final class ExternalKWayMerge implements PrimitiveIterator.OfLong, Closeable {
+
+    enum Width {
+        INT(4),
+        LONG(8);
+
+        final int bytes;
+
+        Width(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    static final int DEFAULT_WINDOW_BYTES = 1 << 20;
+
+    private final Width width;
+    private final MappedRun[] runs;
+    private final int[] tree;
+    private final int k;
+
+    ExternalKWayMerge(List<Path> paths, Width width) throws IOException {
+        this(paths, width, DEFAULT_WINDOW_BYTES);
+    }
+
+    ExternalKWayMerge(List<Path> paths, Width width, int windowBytes) throws IOException {
+        if (windowBytes < width.bytes) throw new IllegalArgumentException("windowBytes smaller than one element");
+        this.width = width;
+        this.k = paths.size();
+        this.runs = new MappedRun[k];
+        int window = windowBytes - windowBytes % width.bytes;
+        try {
+            for (int i = 0; i < k; i++) runs[i] = new MappedRun(paths.get(i), width, window);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        this.tree = new int[Math.max(k, 1)];
+        Arrays.fill(tree, k);
+        for (int i = k - 1; i >= 0; i--) adjust(i);
+    }
+
+    // merges runs into out, returns the number of elements written
+    static long mergeToFile(List<Path> paths, Path out, Width width, int windowBytes) throws IOException {
+        try (
+            ExternalKWayMerge merge = new ExternalKWayMerge(paths, width, windowBytes);
+            FileChannel channel = FileChannel.open(
+                out,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            long total = merge.totalBytes();
+            int window = windowBytes - windowBytes % width.bytes;
+            long written = 0;
+            while (written < total) {
+                int len = (int) Math.min(window, total - written);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, written, len);
+                if (width == Width.INT) {
+                    while (buffer.hasRemaining()) buffer.putInt((int) merge.nextLong());
+                } else {
+                    while (buffer.hasRemaining()) buffer.putLong(merge.nextLong());
+                }
+                written += len;
+            }
+            channel.force(false);
+            return total / width.bytes;
+        }
+    }
+
+    long totalBytes() {
+        long total = 0;
+        for (MappedRun run : runs) total += run.size;
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && runs[tree[0]].hasCurrent;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) throw new NoSuchElementException();
+        int winner = tree[0];
+        MappedRun run = runs[winner];
+        long value = run.current;
+        try {
+            run.advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        adjust(winner);
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (MappedRun run : runs) {
+            if (run == null) continue;
+            try {
+                run.channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    // loser tree on run heads, same layout as Solution.LoserTree
+    private void adjust(int player) {
+        for (int t = (player + k) >> 1; t > 0; t >>= 1) {
+            if (beats(tree[t], player)) {
+                int loser = player;
+                player = tree[t];
+                tree[t] = loser;
+            }
+        }
+        tree[0] = player;
+    }
+
+    private boolean beats(int a, int b) {
+        if (a == k) return true;
+        if (b == k) return false;
+        MappedRun x = runs[a];
+        MappedRun y = runs[b];
+        if (!x.hasCurrent) return false;
+        if (!y.hasCurrent) return true;
+        if (x.current != y.current) return x.current < y.current;
+        return a < b;
+    }
+
+    private static final class MappedRun {
+
+        final FileChannel channel;
+        final long size;
+        final Width width;
+        final int windowBytes;
+        long windowStart;
+        MappedByteBuffer window;
+        boolean hasCurrent;
+        long current;
+
+        MappedRun(Path path, Width width, int windowBytes) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.width = width;
+            this.windowBytes = windowBytes;
+            try {
+                if (size % width.bytes != 0) {
+                    throw new IllegalArgumentException(path + " is not a whole number of " + width + " values");
+                }
+                advance();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void advance() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                long next = window == null ? 0 : windowStart + window.capacity();
+                if (next >= size) {
+                    hasCurrent = false;
+                    return;
+                }
+                windowStart = next;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowBytes, size - next));
+            }
+            current = width == Width.INT ? window.getInt() : window.getLong();
+            hasCurrent = true;
+        }
+    }
+}
+
+// Run with a ListNode definition on the classpath:
+//   java MergeKListsBenchmark [lists] [nodesPerList]
+// Keeps the node count fixed and widens the value range; time and retained
+// heap should stay flat once the input becomes sparse.
+class MergeKListsBenchmark {
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int perList = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        long[] ranges = { 1L << 10, 1L << 16, 1L << 20, 1L << 24, 1L << 28, 1L << 32 };
+        Random random = new Random(42);
+
+        System.out.printf("%-12s %-20s %10s %12s%n", "range", "strategy", "ms", "heapDeltaKB");
+        for (long range : ranges) {
+            ListNode[] lists = randomLists(random, k, perList, range);
+            Solution solution = new Solution();
+            Runtime rt = Runtime.getRuntime();
+            System.gc();
+            long before = rt.totalMemory() - rt.freeMemory();
+            long start = System.nanoTime();
+            ListNode merged = solution.mergeKLists(lists);
+            long elapsed = System.nanoTime() - start;
+            long after = rt.totalMemory() - rt.freeMemory();
+            if (!isSorted(merged)) throw new IllegalStateException("merge output not sorted");
+            System.out.printf(
+                "%-12d %-20s %10.2f %12d%n",
+                range,
+                solution.lastStrategy(),
+                elapsed / 1e6,
+                Math.max(0, after - before) / 1024
+            );
+        }
+    }
+
+    static ListNode[] randomLists(Random random, int k, int perList, long range) {
+        ListNode[] lists = new ListNode[k];
+        int[] values = new int[perList];
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < perList; j++) {
+                values[j] = (int) (Integer.MIN_VALUE + (long) (random.nextDouble() * range));
+            }
+            Arrays.sort(values);
+            ListNode head = null;
+            for (int j = perList - 1; j >= 0; j--) head = new ListNode(values[j], head);
+            lists[i] = head;
+        }
+        return lists;
+    }
+
+    static boolean isSorted(ListNode node) {
+        while (node != null && node.next != null) {
+            if (node.val > node.next.val) return false;
+            node = node.next;
+        }
+        return true;
+    }
+}
+
+// Run with a ListNode definition on the classpath:
+//   java ParallelMergeKListsBenchmark [lists] [nodesPerList] [cutoff]
+// Merges the same input on pools of 1, 2, 4, ... and availableProcessors threads and prints speedup.
+class ParallelMergeKListsBenchmark {
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int perList = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        int cutoff = args.length > 2 ? Integer.parseInt(args[2]) : Solution.DEFAULT_PARALLEL_CUTOFF;
+        int cores = Runtime.getRuntime().availableProcessors();
+        Random random = new Random(42);
+        int[][] values = new int[k][perList];
+        for (int[] row : values) {
+            for (int j = 0; j < perList; j++) row[j] = random.nextInt();
+            Arrays.sort(row);
+        }
+
+        double baseline = 0;
+        System.out.printf("%-8s %10s %8s%n", "threads", "ms", "speedup");
+        // powers of two, plus the full core count when it is not one
+        for (int threads = 1; threads <= cores; threads = threads < cores && threads * 2 > cores ? cores : threads * 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double best = Double.MAX_VALUE;
+            for (int run = 0; run < 5; run++) {
+                ListNode[] lists = build(values);
+                long start = System.nanoTime();
+                ListNode merged = new Solution().mergeKListsParallel(lists, cutoff, pool);
+                best = Math.min(best, (System.nanoTime() - start) / 1e6);
+                if (!MergeKListsBenchmark.isSorted(merged)) throw new IllegalStateException("merge output not sorted");
+            }
+            pool.shutdown();
+            if (threads == 1) baseline = best;
+            System.out.printf("%-8d %10.2f %8.2f%n", threads, best, baseline / best);
+        }
+    }
+
+    static ListNode[] build(int[][] values) {
+        ListNode[] lists = new ListNode[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ListNode head = null;
+            for (int j = values[i].length - 1; j >= 0; j--) head = new ListNode(values[i][j], head);
+            lists[i] = head;
+        }
+        return lists;
+    }
+}
+
+// Usage: java ExternalMergeBenchmark <dir> [runs] [totalMB] [int|long]
+// Writes `runs` sorted run files totalling totalMB under dir, merges them and reports MB/s.
+class ExternalMergeBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"));
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        long totalMb = args.length > 2 ? Long.parseLong(args[2]) : 1024;
+        ExternalKWayMerge.Width width = args.length > 3 && args[3].equals("int")
+            ? ExternalKWayMerge.Width.INT
+            : ExternalKWayMerge.Width.LONG;
+
+        long perRun = (totalMb << 20) / k / width.bytes;
+        List<Path> runs = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < k; i++) {
+            Path run = dir.resolve("run-" + i + ".bin");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                // sorted by construction: random non-negative gaps, sized so an int walk stays in range
+                if (width == ExternalKWayMerge.Width.INT) {
+                    int gap = (int) Math.max(1, Math.min(1024, (1L << 32) / Math.max(perRun, 1)));
+                    long value = Integer.MIN_VALUE;
+                    for (long j = 0; j < perRun; j++) {
+                        value += random.nextInt(gap);
+                        out.writeInt((int) value);
+                    }
+                } else {
+                    long value = Long.MIN_VALUE / 2;
+                    for (long j = 0; j < perRun; j++) {
+                        value += random.nextInt(1024);
+                        out.writeLong(value);
+                    }
+                }
+            }
+            runs.add(run);
+        }
+
+        Path out = dir.resolve("merged.bin");
+        long start = System.nanoTime();
+        long count = ExternalKWayMerge.mergeToFile(runs, out, width, ExternalKWayMerge.DEFAULT_WINDOW_BYTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double mb = count * width.bytes / (double) (1 << 20);
+        System.out.printf("merged %d values (%.0f MB) from %d runs in %.2fs: %.1f MB/s%n", count, mb, k, seconds, mb / seconds);
+
+        for (Path run : runs) Files.delete(run);
+        Files.delete(out);
+    }
 }
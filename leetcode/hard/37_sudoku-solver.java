@@ -1,3 +1,8 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
 class Solution {
 
     private static final int SIZE = 9;
@@ -119,3 +124,715 @@ class Solution {
         return (char) (i + '1');
     }
 }
+
+// Batch 9x9 solver: one puzzle per line (81 chars, '.' or '0' for empty), flat byte[81] cells
+// and short[81] candidate masks. Every assignment eliminates the digit from the cell's 20 peers
+// (naked singles cascade), then each of the 27 units is scanned for hidden singles; MRV
+// backtracking only runs once propagation stalls, so hard 17-clue puzzles need few guesses.
+//   java BatchSudokuSolver puzzles.txt [solutions.txt]
+class BatchSudokuSolver {
+
+    static final int CELLS = 81;
+    static final int ALL = 0x1ff;
+    static final int[][] UNITS = new int[27][9];
+    static final int[][] PEERS = new int[CELLS][20];
+
+    static {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                UNITS[i][j] = i * 9 + j; // rows
+                UNITS[9 + i][j] = j * 9 + i; // cols
+                UNITS[18 + i][j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3; // blocks
+            }
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int r = cell / 9, c = cell % 9, n = 0;
+            for (int other = 0; other < CELLS; other++) {
+                if (other == cell) continue;
+                int or = other / 9, oc = other % 9;
+                if (or == r || oc == c || (or / 3 == r / 3 && oc / 3 == c / 3)) PEERS[cell][n++] = other;
+            }
+        }
+    }
+
+    // solves in place, cells hold 0 for empty and 1..9 otherwise
+    static boolean solve(byte[] cells) {
+        short[] cand = new short[CELLS];
+        Arrays.fill(cand, (short) ALL);
+        byte[] work = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != 0 && !assign(work, cand, i, cells[i] - 1)) return false;
+        }
+        byte[] solved = search(work, cand);
+        if (solved == null) return false;
+        System.arraycopy(solved, 0, cells, 0, CELLS);
+        return true;
+    }
+
+    static String solve(String puzzle) {
+        byte[] cells = parse(puzzle);
+        if (!solve(cells)) return null;
+        StringBuilder sb = new StringBuilder(CELLS);
+        for (byte b : cells) sb.append((char) ('0' + b));
+        return sb.toString();
+    }
+
+    static byte[] parse(String line) {
+        if (line.length() < CELLS) throw new IllegalArgumentException("puzzle needs 81 cells: " + line);
+        byte[] cells = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            char ch = line.charAt(i);
+            if (ch >= '1' && ch <= '9') cells[i] = (byte) (ch - '0');
+            else if (ch != '.' && ch != '0') throw new IllegalArgumentException("bad cell '" + ch + "' in " + line);
+        }
+        return cells;
+    }
+
+    private static byte[] search(byte[] cells, short[] cand) {
+        if (!hiddenSingles(cells, cand)) return null;
+
+        int best = -1;
+        int min = 10;
+        for (int i = 0; i < CELLS && min > 2; i++) {
+            if (cells[i] != 0) continue;
+            int count = Integer.bitCount(cand[i]);
+            if (count < min) {
+                min = count;
+                best = i;
+            }
+        }
+        if (best < 0) return cells;
+
+        for (int bits = cand[best]; bits != 0; bits &= bits - 1) {
+            byte[] nextCells = cells.clone();
+            short[] nextCand = cand.clone();
+            if (!assign(nextCells, nextCand, best, Integer.numberOfTrailingZeros(bits))) continue;
+            byte[] solved = search(nextCells, nextCand);
+            if (solved != null) return solved;
+        }
+        return null;
+    }
+
+    // number of solutions, stopping as soon as limit are found (limit 2 = uniqueness check)
+    static int countSolutions(byte[] cells, int limit) {
+        short[] cand = new short[CELLS];
+        Arrays.fill(cand, (short) ALL);
+        byte[] work = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != 0 && !assign(work, cand, i, cells[i] - 1)) return 0;
+        }
+        return count(work, cand, limit);
+    }
+
+    private static int count(byte[] cells, short[] cand, int limit) {
+        if (!hiddenSingles(cells, cand)) return 0;
+
+        int best = -1;
+        int min = 10;
+        for (int i = 0; i < CELLS && min > 2; i++) {
+            if (cells[i] != 0) continue;
+            int c = Integer.bitCount(cand[i]);
+            if (c < min) {
+                min = c;
+                best = i;
+            }
+        }
+        if (best < 0) return 1;
+
+        int total = 0;
+        for (int bits = cand[best]; bits != 0 && total < limit; bits &= bits - 1) {
+            byte[] nextCells = cells.clone();
+            short[] nextCand = cand.clone();
+            if (!assign(nextCells, nextCand, best, Integer.numberOfTrailingZeros(bits))) continue;
+            total += count(nextCells, nextCand, limit - total);
+        }
+        return total;
+    }
+
+    // places digit (0-based) and eliminates it from all peers, cascading naked singles
+    static boolean assign(byte[] cells, short[] cand, int cell, int digit) {
+        int bit = 1 << digit;
+        if ((cand[cell] & bit) == 0) return false;
+        cells[cell] = (byte) (digit + 1);
+        cand[cell] = (short) bit;
+        for (int peer : PEERS[cell]) {
+            int mask = cand[peer];
+            if ((mask & bit) == 0) continue;
+            mask &= ~bit;
+            if (mask == 0) return false;
+            cand[peer] = (short) mask;
+            if (cells[peer] == 0 && (mask & (mask - 1)) == 0) {
+                if (!assign(cells, cand, peer, Integer.numberOfTrailingZeros(mask))) return false;
+            }
+        }
+        return true;
+    }
+
+    // a digit with exactly one possible cell in a unit goes there
+    static boolean hiddenSingles(byte[] cells, short[] cand) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] unit : UNITS) {
+                int once = 0, twice = 0;
+                for (int cell : unit) {
+                    twice |= once & cand[cell];
+                    once |= cand[cell];
+                }
+                if (once != ALL) return false;
+                int singles = once & ~twice;
+                for (; singles != 0; singles &= singles - 1) {
+                    int bit = singles & -singles;
+                    for (int cell : unit) {
+                        if ((cand[cell] & bit) == 0) continue;
+                        if (cells[cell] == 0) {
+                            if (!assign(cells, cand, cell, Integer.numberOfTrailingZeros(bit))) return false;
+                            changed = true;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // solves every puzzle across all cores; latencies[i] receives puzzle i's solve time in ns
+    static String[] solveAll(List<String> puzzles, long[] latencies) {
+        String[] results = new String[puzzles.size()];
+        IntStream.range(0, results.length).parallel().forEach(i -> {
+            long start = System.nanoTime();
+            results[i] = solve(puzzles.get(i));
+            latencies[i] = System.nanoTime() - start;
+        });
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> puzzles = Files.readAllLines(Paths.get(args[0]))
+            .stream()
+            .map(String::trim)
+            .filter(line -> line.length() >= CELLS)
+            .collect(Collectors.toList());
+        long[] latencies = new long[puzzles.size()];
+
+        solveAll(puzzles, latencies); // warm-up
+        long start = System.nanoTime();
+        String[] results = solveAll(puzzles, latencies);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long unsolved = Arrays.stream(results).filter(Objects::isNull).count();
+        Arrays.sort(latencies);
+        System.out.printf(
+            "%d puzzles (%d unsolved) in %.3fs: %.0f puzzles/s on %d cores%n",
+            results.length,
+            unsolved,
+            seconds,
+            results.length / seconds,
+            Runtime.getRuntime().availableProcessors()
+        );
+        System.out.printf(
+            "latency us: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+            percentile(latencies, 0.50) / 1e3,
+            percentile(latencies, 0.90) / 1e3,
+            percentile(latencies, 0.99) / 1e3,
+            percentile(latencies, 1.00) / 1e3
+        );
+        if (args.length > 1) Files.write(Paths.get(args[1]), Arrays.asList(results));
+    }
+
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
+
+// N^2 x N^2 Sudoku (9x9, 16x16, 25x25, ...). Candidate sets are long masks, so up to 36 digits.
+// BACKTRACKING is the propagate + MRV search used by BatchSudokuSolver; DANCING_LINKS solves
+// the board as exact cover (cell, row-digit, col-digit, block-digit constraints) with Knuth's
+// Algorithm X; AUTO backtracks under a node budget and falls back to dancing links if it stalls.
+class SizedSudokuSolver {
+
+    enum Engine {
+        BACKTRACKING,
+        DANCING_LINKS,
+        AUTO,
+    }
+
+    static final long DEFAULT_NODE_BUDGET = 20_000;
+    // 36 digits; '.' and '0' mark empty cells
+    private static final String SYMBOLS = "123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ@";
+    private static final String SEPARATORS = " \t\r\n,|-+";
+
+    final int blockSize;
+    final int side;
+    final int cells;
+    private final long allBits;
+    private final int[][] units;
+    private final int[][] peers;
+    private long nodeBudget = DEFAULT_NODE_BUDGET;
+    private long nodes;
+    private Engine lastEngine;
+
+    SizedSudokuSolver(int blockSize) {
+        if (blockSize < 1 || blockSize * blockSize > 36) throw new IllegalArgumentException("block size must be 1..6");
+        this.blockSize = blockSize;
+        this.side = blockSize * blockSize;
+        this.cells = side * side;
+        this.allBits = side == 64 ? -1L : (1L << side) - 1;
+        this.units = new int[3 * side][side];
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                units[i][j] = i * side + j;
+                units[side + i][j] = j * side + i;
+                int r = (i / blockSize) * blockSize + j / blockSize;
+                int c = (i % blockSize) * blockSize + j % blockSize;
+                units[2 * side + i][j] = r * side + c;
+            }
+        }
+        int peerCount = 3 * side - 2 * blockSize - 1;
+        this.peers = new int[cells][peerCount];
+        for (int cell = 0; cell < cells; cell++) {
+            int r = cell / side, c = cell % side, n = 0;
+            for (int other = 0; other < cells; other++) {
+                if (other == cell) continue;
+                int or = other / side, oc = other % side;
+                boolean sameBlock = or / blockSize == r / blockSize && oc / blockSize == c / blockSize;
+                if (or == r || oc == c || sameBlock) peers[cell][n++] = other;
+            }
+        }
+    }
+
+    void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    // engine that produced the last answer (AUTO resolves to one of the other two)
+    Engine lastEngine() {
+        return lastEngine;
+    }
+
+    // board holds 0 for empty and 1..side otherwise; solved in place
+    boolean solve(int[] board, Engine engine) {
+        if (board.length != cells) throw new IllegalArgumentException("expected " + cells + " cells");
+        if (engine != Engine.DANCING_LINKS) {
+            lastEngine = Engine.BACKTRACKING;
+            nodes = 0;
+            long budget = engine == Engine.AUTO ? nodeBudget : Long.MAX_VALUE;
+            try {
+                int[] solved = backtrack(board, budget);
+                if (solved == null) return false;
+                System.arraycopy(solved, 0, board, 0, cells);
+                return true;
+            } catch (BudgetExceeded e) {
+                // fall through to exact cover
+            }
+        }
+        lastEngine = Engine.DANCING_LINKS;
+        return new DancingLinks(board).solve(board);
+    }
+
+    int[] parse(String line) {
+        int[] board = new int[cells];
+        int n = 0;
+        for (int i = 0; i < line.length() && n < cells; i++) {
+            char ch = Character.toUpperCase(line.charAt(i));
+            if (ch == '.' || ch == '0') {
+                n++;
+                continue;
+            }
+            if (SEPARATORS.indexOf(ch) >= 0) continue;
+            int value = SYMBOLS.indexOf(ch) + 1;
+            if (value < 1 || value > side) {
+                throw new IllegalArgumentException("unexpected '" + line.charAt(i) + "' at " + i + " for a " + side + "x" + side + " board");
+            }
+            board[n++] = value;
+        }
+        if (n != cells) throw new IllegalArgumentException("expected " + cells + " cells, got " + n);
+        return board;
+    }
+
+    String format(int[] board) {
+        StringBuilder sb = new StringBuilder(cells);
+        for (int value : board) sb.append(value == 0 ? '.' : SYMBOLS.charAt(value - 1));
+        return sb.toString();
+    }
+
+    private int[] backtrack(int[] board, long budget) {
+        int[] work = new int[cells];
+        long[] cand = new long[cells];
+        Arrays.fill(cand, allBits);
+        for (int i = 0; i < cells; i++) {
+            if (board[i] != 0 && !assign(work, cand, i, board[i] - 1)) return null;
+        }
+        return search(work, cand, budget);
+    }
+
+    private int[] search(int[] board, long[] cand, long budget) {
+        if (++nodes > budget) throw new BudgetExceeded();
+        if (!hiddenSingles(board, cand)) return null;
+
+        int best = -1;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < cells && min > 2; i++) {
+            if (board[i] != 0) continue;
+            int count = Long.bitCount(cand[i]);
+            if (count < min) {
+                min = count;
+                best = i;
+            }
+        }
+        if (best < 0) return board;
+
+        for (long bits = cand[best]; bits != 0; bits &= bits - 1) {
+            int[] nextBoard = board.clone();
+            long[] nextCand = cand.clone();
+            if (!assign(nextBoard, nextCand, best, Long.numberOfTrailingZeros(bits))) continue;
+            int[] solved = search(nextBoard, nextCand, budget);
+            if (solved != null) return solved;
+        }
+        return null;
+    }
+
+    private boolean assign(int[] board, long[] cand, int cell, int digit) {
+        long bit = 1L << digit;
+        if ((cand[cell] & bit) == 0) return false;
+        board[cell] = digit + 1;
+        cand[cell] = bit;
+        for (int peer : peers[cell]) {
+            long mask = cand[peer];
+            if ((mask & bit) == 0) continue;
+            mask &= ~bit;
+            if (mask == 0) return false;
+            cand[peer] = mask;
+            if (board[peer] == 0 && (mask & (mask - 1)) == 0) {
+                if (!assign(board, cand, peer, Long.numberOfTrailingZeros(mask))) return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hiddenSingles(int[] board, long[] cand) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] unit : units) {
+                long once = 0, twice = 0;
+                for (int cell : unit) {
+                    twice |= once & cand[cell];
+                    once |= cand[cell];
+                }
+                if (once != allBits) return false;
+                for (long singles = once & ~twice; singles != 0; singles &= singles - 1) {
+                    long bit = singles & -singles;
+                    for (int cell : unit) {
+                        if ((cand[cell] & bit) == 0) continue;
+                        if (board[cell] == 0) {
+                            if (!assign(board, cand, cell, Long.numberOfTrailingZeros(bit))) return false;
+                            changed = true;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static final class BudgetExceeded extends RuntimeException {
+
+        BudgetExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Algorithm X over flat int arrays. Column c in [0, 4 * cells):
+     * cell filled, row has digit, column has digit, block has digit.
+     * Each candidate (cell, digit) is one row of 4 nodes.
+     */
+    private final class DancingLinks {
+
+        private final int columns = 4 * cells;
+        private final int root = columns;
+        private int[] left, right, up, down, column, rowOf, size;
+        private int count;
+        private final int[] chosen;
+        private int depth;
+
+        DancingLinks(int[] board) {
+            int capacity = columns + 1 + 4 * cells * side;
+            left = new int[capacity];
+            right = new int[capacity];
+            up = new int[capacity];
+            down = new int[capacity];
+            column = new int[capacity];
+            rowOf = new int[capacity];
+            size = new int[columns];
+            chosen = new int[cells];
+
+            for (int c = 0; c <= columns; c++) {
+                left[c] = c - 1;
+                right[c] = c + 1;
+                up[c] = c;
+                down[c] = c;
+                column[c] = c;
+            }
+            left[0] = root;
+            right[root] = 0;
+            left[root] = columns - 1;
+            count = columns + 1;
+
+            for (int cell = 0; cell < cells; cell++) {
+                int given = board[cell];
+                for (int d = 0; d < side; d++) {
+                    if (given != 0 && given != d + 1) continue;
+                    addRow(cell * side + d, cell, d);
+                }
+            }
+        }
+
+        private void addRow(int row, int cell, int d) {
+            int r = cell / side, c = cell % side;
+            int b = (r / blockSize) * blockSize + c / blockSize;
+            int first = count;
+            int[] cols = { cell, cells + r * side + d, 2 * cells + c * side + d, 3 * cells + b * side + d };
+            for (int i = 0; i < 4; i++) {
+                int node = count++;
+                int col = cols[i];
+                column[node] = col;
+                rowOf[node] = row;
+                up[node] = up[col];
+                down[node] = col;
+                down[up[col]] = node;
+                up[col] = node;
+                size[col]++;
+                left[node] = i == 0 ? node : node - 1;
+                right[node] = first;
+                if (i > 0) right[node - 1] = node;
+                left[first] = node;
+            }
+        }
+
+        boolean solve(int[] board) {
+            // givens are the only row in their cell column, so search() picks them first
+            if (!search()) return false;
+            for (int i = 0; i < depth; i++) {
+                int row = chosen[i];
+                board[row / side] = row % side + 1;
+            }
+            return true;
+        }
+
+        private boolean search() {
+            if (right[root] == root) return true;
+            int best = right[root];
+            for (int c = right[best]; c != root && size[best] > 1; c = right[c]) {
+                if (size[c] < size[best]) best = c;
+            }
+            if (size[best] == 0) return false;
+
+            cover(best);
+            for (int node = down[best]; node != best; node = down[node]) {
+                chosen[depth++] = rowOf[node];
+                for (int j = right[node]; j != node; j = right[j]) cover(column[j]);
+                if (search()) return true;
+                for (int j = left[node]; j != node; j = left[j]) uncover(column[j]);
+                depth--;
+            }
+            uncover(best);
+            return false;
+        }
+
+        private void cover(int c) {
+            right[left[c]] = right[c];
+            left[right[c]] = left[c];
+            for (int i = down[c]; i != c; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    down[up[j]] = down[j];
+                    up[down[j]] = up[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        private void uncover(int c) {
+            for (int i = up[c]; i != c; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    down[up[j]] = j;
+                    up[down[j]] = j;
+                }
+            }
+            right[left[c]] = c;
+            left[right[c]] = c;
+        }
+    }
+}
+
+// Unique-solution 9x9 puzzle generator on top of BatchSudokuSolver: fills a random grid,
+// then removes clues in symmetric orbits (in random order), keeping a removal only while
+// countSolutions(puzzle, 2) == 1. Retries with a fresh grid until targetClues is reached.
+//   java SudokuGenerator [count] [targetClues] [NONE|ROTATIONAL|MIRROR|DIAGONAL]
+class SudokuGenerator {
+
+    enum Symmetry {
+        NONE,
+        ROTATIONAL, // 180 degrees
+        MIRROR, // left-right
+        DIAGONAL, // main diagonal
+    }
+
+    static final int MAX_ATTEMPTS = 50;
+
+    private final SplittableRandom random;
+
+    SudokuGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SudokuGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    // puzzle with exactly one solution and at most targetClues clues, or null if not reached
+    byte[] generate(int targetClues, Symmetry symmetry) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            byte[] puzzle = randomGrid();
+            if (removeClues(puzzle, targetClues, symmetry) <= targetClues) return puzzle;
+        }
+        return null;
+    }
+
+    byte[] randomGrid() {
+        short[] cand = new short[BatchSudokuSolver.CELLS];
+        Arrays.fill(cand, (short) BatchSudokuSolver.ALL);
+        byte[] grid = fill(new byte[BatchSudokuSolver.CELLS], cand);
+        if (grid == null) throw new IllegalStateException("empty grid has no solution");
+        return grid;
+    }
+
+    private byte[] fill(byte[] cells, short[] cand) {
+        if (!BatchSudokuSolver.hiddenSingles(cells, cand)) return null;
+
+        int best = -1;
+        int min = 10;
+        for (int i = 0; i < BatchSudokuSolver.CELLS && min > 2; i++) {
+            if (cells[i] != 0) continue;
+            int c = Integer.bitCount(cand[i]);
+            if (c < min) {
+                min = c;
+                best = i;
+            }
+        }
+        if (best < 0) return cells;
+
+        int[] digits = new int[9];
+        int n = 0;
+        for (int bits = cand[best]; bits != 0; bits &= bits - 1) digits[n++] = Integer.numberOfTrailingZeros(bits);
+        shuffle(digits, n);
+        for (int i = 0; i < n; i++) {
+            byte[] nextCells = cells.clone();
+            short[] nextCand = cand.clone();
+            if (!BatchSudokuSolver.assign(nextCells, nextCand, best, digits[i])) continue;
+            byte[] filled = fill(nextCells, nextCand);
+            if (filled != null) return filled;
+        }
+        return null;
+    }
+
+    // returns the remaining clue count
+    private int removeClues(byte[] puzzle, int targetClues, Symmetry symmetry) {
+        int[] order = new int[BatchSudokuSolver.CELLS];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        shuffle(order, order.length);
+
+        int clues = BatchSudokuSolver.CELLS;
+        int[] orbit = new int[2];
+        byte[] saved = new byte[2];
+        for (int cell : order) {
+            if (clues <= targetClues) break;
+            if (puzzle[cell] == 0) continue;
+            int size = orbit(cell, symmetry, orbit);
+            for (int i = 0; i < size; i++) {
+                saved[i] = puzzle[orbit[i]];
+                puzzle[orbit[i]] = 0;
+            }
+            if (BatchSudokuSolver.countSolutions(puzzle, 2) == 1) {
+                clues -= size;
+            } else {
+                for (int i = 0; i < size; i++) puzzle[orbit[i]] = saved[i];
+            }
+        }
+        return clues;
+    }
+
+    private static int orbit(int cell, Symmetry symmetry, int[] out) {
+        int r = cell / 9, c = cell % 9;
+        int mate;
+        switch (symmetry) {
+            case ROTATIONAL:
+                mate = 80 - cell;
+                break;
+            case MIRROR:
+                mate = r * 9 + (8 - c);
+                break;
+            case DIAGONAL:
+                mate = c * 9 + r;
+                break;
+            default:
+                mate = cell;
+        }
+        out[0] = cell;
+        if (mate == cell) return 1;
+        out[1] = mate;
+        return 2;
+    }
+
+    private void shuffle(int[] values, int n) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    // generates count puzzles across all cores, each task on its own split of the seed
+    static List<byte[]> generateAll(int count, int targetClues, Symmetry symmetry, long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) randoms[i] = root.split();
+        return IntStream.range(0, count)
+            .parallel()
+            .mapToObj(i -> new SudokuGenerator(randoms[i]).generate(targetClues, symmetry))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int targetClues = args.length > 1 ? Integer.parseInt(args[1]) : 26;
+        Symmetry symmetry = args.length > 2 ? Symmetry.valueOf(args[2]) : Symmetry.ROTATIONAL;
+
+        long start = System.nanoTime();
+        List<byte[]> puzzles = generateAll(count, targetClues, symmetry, 42);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (byte[] puzzle : puzzles) {
+            StringBuilder sb = new StringBuilder(BatchSudokuSolver.CELLS);
+            for (byte b : puzzle) sb.append(b == 0 ? '.' : (char) ('0' + b));
+            System.out.println(sb);
+        }
+        System.err.printf(
+            "%d/%d puzzles with <= %d clues (%s) in %.2fs: %.1f puzzles/s on %d cores%n",
+            puzzles.size(),
+            count,
+            targetClues,
+            symmetry,
+            seconds,
+            puzzles.size() / seconds,
+            Runtime.getRuntime().availableProcessors()
+        );
+    }
+}
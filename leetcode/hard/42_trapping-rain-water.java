@@ -1,3 +1,10 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
 class Solution {
 
     public int trap(int[] height) {
@@ -21,4 +28,322 @@ class Solution {
         }
         return water;
     }
+
+    // same two-pointer scan with a long accumulator; the int version overflows on large inputs
+    public long trapLong(int[] height) {
+        return ParallelRainWater.trapChunk(IntBuffer.wrap(height), 0, 0);
+    }
+
+    // volumetric variant over an elevation grid, see RainWater2D
+    public long trapRainWater(int[][] heightMap) {
+        return RainWater2D.trap(heightMap);
+    }
+}
+
+/**
+ * Chunked parallel trap. Water at i is min(max(h[0..i]), max(h[i..n-1])) - h[i], so
+ * pass 1 takes each chunk's maximum, a prefix/suffix scan over those maxima gives the
+ * highest wall left and right of every chunk, and pass 2 runs the two-pointer scan
+ * inside each chunk seeded with those walls. Both passes run chunks in parallel.
+ * Files hold big-endian int32 heights and are mapped one chunk at a time.
+ */
+final class ParallelRainWater {
+
+    static final int DEFAULT_CHUNK = 1 << 20;
+
+    private ParallelRainWater() {}
+
+    static long trap(int[] height) {
+        return trap(height, DEFAULT_CHUNK);
+    }
+
+    static long trap(int[] height, int chunk) {
+        if (chunk < 1) throw new IllegalArgumentException("chunk must be positive");
+        int chunks = (int) ((height.length + (long) chunk - 1) / chunk);
+        int[] maxima = IntStream.range(0, chunks)
+            .parallel()
+            .map(i -> chunkMax(slice(height, i, chunk)))
+            .toArray();
+        int[][] walls = walls(maxima);
+        return IntStream.range(0, chunks)
+            .parallel()
+            .mapToLong(i -> trapChunk(slice(height, i, chunk), walls[0][i], walls[1][i]))
+            .sum();
+    }
+
+    static long trap(Path file) throws IOException {
+        return trap(file, DEFAULT_CHUNK);
+    }
+
+    static long trap(Path file, int chunk) throws IOException {
+        if (chunk < 1) throw new IllegalArgumentException("chunk must be positive");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) throw new IllegalArgumentException(file + " is not a whole number of ints");
+            long n = size / Integer.BYTES;
+            int chunks = (int) ((n + chunk - 1) / chunk);
+            try {
+                int[] maxima = IntStream.range(0, chunks)
+                    .parallel()
+                    .map(i -> chunkMax(map(channel, n, i, chunk)))
+                    .toArray();
+                int[][] walls = walls(maxima);
+                return IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToLong(i -> trapChunk(map(channel, n, i, chunk), walls[0][i], walls[1][i]))
+                    .sum();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // walls[0][i] = max of chunks before i, walls[1][i] = max of chunks after i
+    private static int[][] walls(int[] maxima) {
+        int chunks = maxima.length;
+        int[] left = new int[chunks];
+        int[] right = new int[chunks];
+        for (int i = 1; i < chunks; i++) left[i] = Math.max(left[i - 1], maxima[i - 1]);
+        for (int i = chunks - 2; i >= 0; i--) right[i] = Math.max(right[i + 1], maxima[i + 1]);
+        return new int[][] { left, right };
+    }
+
+    private static IntBuffer slice(int[] height, int index, int chunk) {
+        int from = index * chunk;
+        return IntBuffer.wrap(height, from, Math.min(chunk, height.length - from)).slice();
+    }
+
+    private static IntBuffer map(FileChannel channel, long n, int index, int chunk) {
+        long from = (long) index * chunk;
+        long len = Math.min(chunk, n - from);
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from * Integer.BYTES, len * Integer.BYTES).asIntBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int chunkMax(IntBuffer heights) {
+        int max = 0;
+        for (int i = 0, len = heights.limit(); i < len; i++) max = Math.max(max, heights.get(i));
+        return max;
+    }
+
+    // two-pointer scan of one chunk between virtual walls leftWall and rightWall
+    static long trapChunk(IntBuffer heights, int leftWall, int rightWall) {
+        int left = 0,
+            right = heights.limit() - 1;
+        int leftmax = leftWall,
+            rightmax = rightWall;
+        long water = 0;
+
+        while (left <= right) {
+            if (leftmax <= rightmax) {
+                int h = heights.get(left++);
+                if (h >= leftmax) leftmax = h;
+                else water += leftmax - h;
+            } else {
+                int h = heights.get(right--);
+                if (h >= rightmax) rightmax = h;
+                else water += rightmax - h;
+            }
+        }
+        return water;
+    }
+}
+
+/**
+ * Boundary-first priority flood: every border cell goes into a min-heap keyed by water
+ * level; popping the lowest level and visiting unseen neighbours fills each neighbour up
+ * to that level. Heap entries pack (level << 32 | cell) into one long, visited cells are a
+ * bitset, so the grid itself is the only per-cell storage besides the heap.
+ * Files hold big-endian int32 heights row-major and are mapped in bands of whole rows.
+ */
+final class RainWater2D {
+
+    private static final int BAND_INTS = 1 << 28;
+
+    private final int rows;
+    private final int cols;
+    private final int[][] grid;
+    private final IntBuffer[] bands;
+    private final int rowsPerBand;
+
+    private RainWater2D(int[][] grid) {
+        this.rows = grid.length;
+        this.cols = rows == 0 ? 0 : grid[0].length;
+        this.grid = grid;
+        this.bands = null;
+        this.rowsPerBand = 0;
+    }
+
+    private RainWater2D(IntBuffer[] bands, int rowsPerBand, int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.grid = null;
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+    }
+
+    static long trap(int[][] heightMap) {
+        return new RainWater2D(heightMap).flood();
+    }
+
+    static long trap(Path file, int rows, int cols) throws IOException {
+        if ((long) rows * cols > Integer.MAX_VALUE) throw new IllegalArgumentException("grid too large");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != (long) rows * cols * Integer.BYTES) {
+                throw new IllegalArgumentException(file + " is not " + rows + "x" + cols + " ints");
+            }
+            int rowsPerBand = Math.max(1, BAND_INTS / Math.max(cols, 1));
+            IntBuffer[] bands = new IntBuffer[(rows + rowsPerBand - 1) / rowsPerBand];
+            for (int b = 0; b < bands.length; b++) {
+                long firstRow = (long) b * rowsPerBand;
+                long bandRows = Math.min(rowsPerBand, rows - firstRow);
+                bands[b] = channel
+                    .map(FileChannel.MapMode.READ_ONLY, firstRow * cols * Integer.BYTES, bandRows * cols * Integer.BYTES)
+                    .asIntBuffer();
+            }
+            // mappings stay valid after the channel is closed
+            return new RainWater2D(bands, rowsPerBand, rows, cols).flood();
+        }
+    }
+
+    private int height(int row, int col) {
+        if (grid != null) return grid[row][col];
+        return bands[row / rowsPerBand].get((row % rowsPerBand) * cols + col);
+    }
+
+    private long flood() {
+        if (rows < 3 || cols < 3) return 0;
+        int cells = rows * cols;
+        long[] visited = new long[(cells + 63) >>> 6];
+        LongHeap heap = new LongHeap(2 * (rows + cols));
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (r != 0 && r != rows - 1 && c != 0 && c != cols - 1) {
+                    c = cols - 2; // jump to the right border
+                    continue;
+                }
+                int cell = r * cols + c;
+                visited[cell >>> 6] |= 1L << cell;
+                heap.push(pack(height(r, c), cell));
+            }
+        }
+
+        long water = 0;
+        while (!heap.isEmpty()) {
+            long top = heap.pop();
+            int level = (int) (top >> 32);
+            int cell = (int) top;
+            int r = cell / cols,
+                c = cell - r * cols;
+            for (int d = 0; d < 4; d++) {
+                int nr = r + (d == 0 ? -1 : d == 1 ? 1 : 0);
+                int nc = c + (d == 2 ? -1 : d == 3 ? 1 : 0);
+                if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) continue;
+                int next = nr * cols + nc;
+                if ((visited[next >>> 6] & (1L << next)) != 0) continue;
+                visited[next >>> 6] |= 1L << next;
+                int h = height(nr, nc);
+                if (h < level) water += level - h;
+                heap.push(pack(Math.max(level, h), next));
+            }
+        }
+        return water;
+    }
+
+    // level in the high half orders the heap; cell is non-negative so it sorts as unsigned
+    private static long pack(int level, int cell) {
+        return ((long) level << 32) | (cell & 0xffffffffL);
+    }
+
+    static final class LongHeap {
+
+        private long[] heap;
+        private int size;
+
+        LongHeap(int capacity) {
+            heap = new long[Math.max(capacity, 16)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long value) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, heap.length + (heap.length >> 1));
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (last <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
+
+// Usage: java RainWater2DBenchmark <dir> [rows] [cols]
+// Writes a random terrain tile to dir, floods it through the mapped-file path and reports cells/s.
+class RainWater2DBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"));
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int cols = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        Path file = dir.resolve("terrain.bin");
+        SplittableRandom random = new SplittableRandom(42);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (long i = 0, cells = (long) rows * cols; i < cells; i++) out.writeInt(random.nextInt(1 << 16));
+        }
+
+        long start = System.nanoTime();
+        long water = RainWater2D.trap(file, rows, cols);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%dx%d water=%d in %.2fs: %.1f Mcells/s%n", rows, cols, water, seconds, (double) rows * cols / seconds / 1e6);
+        Files.delete(file);
+    }
+}
+
+// Usage: java RainWaterBenchmark [elements]
+// Compares the sequential two-pointer scan with the chunked parallel version on random terrain.
+class RainWaterBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000_000;
+        int[] height = new int[n];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) height[i] = random.nextInt(1 << 20);
+
+        Solution solution = new Solution();
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            long sequential = solution.trapLong(height);
+            long t1 = System.nanoTime();
+            long parallel = ParallelRainWater.trap(height);
+            long t2 = System.nanoTime();
+            if (sequential != parallel) throw new IllegalStateException(sequential + " != " + parallel);
+            System.out.printf("water=%d sequential=%.1fms parallel=%.1fms%n", parallel, (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+    }
 }
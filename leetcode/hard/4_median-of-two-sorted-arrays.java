@@ -1,3 +1,9 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
 class Solution {
 
     public double findMedianSortedArrays(int[] nums1, int[] nums2) {
@@ -36,3 +42,307 @@ class Solution {
         throw new IllegalArgumentException("Input arrays not sorted properly");
     }
 }
+
+/**
+ * Order statistics over M sorted int runs without merging them. Binary search runs over the
+ * value space: for a candidate v, upper-bound searches count elements <= v in every run, so
+ * each probe is O(M log N) and the search takes at most 32 probes. Runs are IntBuffers, so
+ * plain arrays and memory-mapped files of big-endian int32 work the same way.
+ * Ranks are 1-based (k = 1 is the minimum); percentiles use the nearest-rank definition.
+ */
+final class SortedArraysSelect {
+
+    private static final int SLICE_BYTES = 1 << 30;
+
+    private SortedArraysSelect() {}
+
+    static int kth(long k, int[]... sortedArrays) {
+        return kth(k, wrap(sortedArrays));
+    }
+
+    static int kth(long k, IntBuffer... runs) {
+        return select(new long[] { k }, runs)[0];
+    }
+
+    static double median(int[]... sortedArrays) {
+        IntBuffer[] runs = wrap(sortedArrays);
+        long total = total(runs);
+        if (total == 0) throw new IllegalArgumentException("no elements");
+        int[] mid = select(new long[] { (total + 1) / 2, total / 2 + 1 }, runs);
+        return ((long) mid[0] + mid[1]) / 2.0;
+    }
+
+    static int percentile(double p, int[]... sortedArrays) {
+        return percentiles(new double[] { p }, wrap(sortedArrays))[0];
+    }
+
+    // e.g. percentiles({50, 90, 99}, runs) answers p50/p90/p99 with shared count probes
+    static int[] percentiles(double[] ps, IntBuffer... runs) {
+        long total = total(runs);
+        long[] ranks = new long[ps.length];
+        for (int i = 0; i < ps.length; i++) {
+            if (!(ps[i] >= 0 && ps[i] <= 100)) throw new IllegalArgumentException("percentile out of range: " + ps[i]);
+            ranks[i] = Math.max(1, (long) Math.ceil(ps[i] / 100 * total));
+        }
+        return select(ranks, runs);
+    }
+
+    // a sorted file as consecutive slices of at most 1 GiB, each itself a sorted run
+    static IntBuffer[] map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) throw new IllegalArgumentException(file + " is not a whole number of ints");
+            IntBuffer[] slices = new IntBuffer[(int) ((size + SLICE_BYTES - 1) / SLICE_BYTES)];
+            for (int i = 0; i < slices.length; i++) {
+                long from = (long) i * SLICE_BYTES;
+                slices[i] = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(SLICE_BYTES, size - from)).asIntBuffer();
+            }
+            return slices;
+        }
+    }
+
+    /**
+     * Answers all ranks in one descent: each value interval probes its midpoint once and
+     * routes every rank still inside it to the left or right half.
+     */
+    static int[] select(long[] ranks, IntBuffer... runs) {
+        long total = total(runs);
+        Integer[] order = new Integer[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] < 1 || ranks[i] > total) {
+                throw new IllegalArgumentException("rank " + ranks[i] + " outside 1.." + total);
+            }
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> ranks[i]));
+        int[] idx = new int[order.length];
+        for (int i = 0; i < idx.length; i++) idx[i] = order[i];
+
+        int[] answers = new int[ranks.length];
+        select(runs, ranks, idx, 0, idx.length, Integer.MIN_VALUE, Integer.MAX_VALUE, answers);
+        return answers;
+    }
+
+    private static void select(IntBuffer[] runs, long[] ranks, int[] idx, int from, int to, long lo, long hi, int[] answers) {
+        while (from < to) {
+            if (lo == hi) {
+                for (int i = from; i < to; i++) answers[idx[i]] = (int) lo;
+                return;
+            }
+            long mid = Math.floorDiv(lo + hi, 2);
+            long atMost = countAtMost(runs, (int) mid);
+            // ranks are sorted: those <= atMost resolve to a value <= mid
+            int split = from;
+            while (split < to && ranks[idx[split]] <= atMost) split++;
+            select(runs, ranks, idx, from, split, lo, mid, answers);
+            from = split;
+            lo = mid + 1;
+        }
+    }
+
+    private static long countAtMost(IntBuffer[] runs, int value) {
+        long count = 0;
+        for (IntBuffer run : runs) {
+            int low = 0,
+                high = run.limit();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (run.get(mid) <= value) low = mid + 1;
+                else high = mid;
+            }
+            count += low;
+        }
+        return count;
+    }
+
+    private static long total(IntBuffer[] runs) {
+        long total = 0;
+        for (IntBuffer run : runs) total += run.limit();
+        return total;
+    }
+
+    private static IntBuffer[] wrap(int[][] arrays) {
+        IntBuffer[] runs = new IntBuffer[arrays.length];
+        for (int i = 0; i < arrays.length; i++) runs[i] = IntBuffer.wrap(arrays[i]);
+        return runs;
+    }
+}
+
+/**
+ * Quantile of the last W samples, updated in O(log W) per sample. Samples live in a ring
+ * buffer; two indexed heaps hold ring slots (max-heap of the lowest rank samples, min-heap
+ * of the rest) and track each slot's heap position, so the sample leaving the window is
+ * removed directly instead of lazily. Nearest-rank: quantile 0.5 is the lower median.
+ */
+final class SlidingWindowQuantile {
+
+    private final long[] values;
+    private final double quantile;
+    private final IndexedHeap low;
+    private final IndexedHeap high;
+    private long count;
+
+    SlidingWindowQuantile(int window, double quantile) {
+        if (window < 1) throw new IllegalArgumentException("window must be positive");
+        if (!(quantile > 0 && quantile <= 1)) throw new IllegalArgumentException("quantile must be in (0, 1]");
+        this.values = new long[window];
+        this.quantile = quantile;
+        this.low = new IndexedHeap(window, true);
+        this.high = new IndexedHeap(window, false);
+    }
+
+    void add(long value) {
+        int slot = (int) (count % values.length);
+        if (count >= values.length) {
+            if (!low.remove(slot)) high.remove(slot);
+        }
+        values[slot] = value;
+        count++;
+
+        if (!low.isEmpty() && value <= values[low.peek()]) low.push(slot);
+        else high.push(slot);
+
+        int target = rank(size());
+        while (low.size > target) high.push(low.pop());
+        while (low.size < target) low.push(high.pop());
+    }
+
+    long get() {
+        if (count == 0) throw new IllegalStateException("no samples");
+        return values[low.peek()];
+    }
+
+    int size() {
+        return (int) Math.min(count, values.length);
+    }
+
+    private int rank(int size) {
+        return Math.max(1, (int) Math.ceil(quantile * size));
+    }
+
+    private final class IndexedHeap {
+
+        private final int[] heap;
+        private final int[] position; // slot -> index in heap, -1 if absent
+        private final boolean max;
+        int size;
+
+        IndexedHeap(int capacity, boolean max) {
+            this.heap = new int[capacity];
+            this.position = new int[capacity];
+            this.max = max;
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void push(int slot) {
+            heap[size] = slot;
+            position[slot] = size;
+            siftUp(size++);
+        }
+
+        int pop() {
+            int top = heap[0];
+            removeAt(0);
+            return top;
+        }
+
+        boolean remove(int slot) {
+            int i = position[slot];
+            if (i < 0) return false;
+            removeAt(i);
+            return true;
+        }
+
+        private void removeAt(int i) {
+            int removed = heap[i];
+            position[removed] = -1;
+            if (--size == i) return;
+            heap[i] = heap[size];
+            position[heap[i]] = i;
+            siftDown(i);
+            siftUp(i);
+        }
+
+        private boolean above(int a, int b) {
+            long x = values[a], y = values[b];
+            return max ? x > y : x < y;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(heap[i], heap[parent])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && above(heap[child + 1], heap[child])) child++;
+                if (!above(heap[child], heap[i])) break;
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+            position[heap[a]] = a;
+            position[heap[b]] = b;
+        }
+    }
+}
+
+// Usage: java SlidingWindowQuantileBenchmark [window] [samples]
+// Per-tick cost of the heap tracker against copying and sorting the window every tick.
+class SlidingWindowQuantileBenchmark {
+
+    public static void main(String[] args) {
+        int window = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        long[] data = new long[samples];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < samples; i++) data[i] = random.nextLong(1_000_000);
+
+        for (int run = 0; run < 3; run++) {
+            SlidingWindowQuantile tracker = new SlidingWindowQuantile(window, 0.99);
+            long checksum = 0;
+            long t0 = System.nanoTime();
+            for (long sample : data) {
+                tracker.add(sample);
+                checksum += tracker.get();
+            }
+            long t1 = System.nanoTime();
+
+            long expected = 0;
+            long[] sorted = new long[window];
+            for (int i = 0; i < samples; i++) {
+                int size = Math.min(i + 1, window);
+                System.arraycopy(data, i + 1 - size, sorted, 0, size);
+                Arrays.sort(sorted, 0, size);
+                expected += sorted[Math.max(1, (int) Math.ceil(0.99 * size)) - 1];
+            }
+            long t2 = System.nanoTime();
+            if (checksum != expected) throw new IllegalStateException("tracker disagrees with sorted window");
+            System.out.printf(
+                "window=%d heaps=%.1f ns/tick resort=%.1f ns/tick%n",
+                window,
+                (t1 - t0) / (double) samples,
+                (t2 - t1) / (double) samples
+            );
+        }
+    }
+}
@@ -1,3 +1,8 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
 // class Solution {
 //     public List<List<String>> solveNQueens(int n) {
 //         List<List<String>> results = new ArrayList<>();
@@ -50,15 +55,17 @@
 
 class Solution {
 
+    static final int MAX_N = 64;
+
     private int n;
-    private int fullMask;
+    private long fullMask;
     private int[] queens; // queens[row] = col position
     private String[] templates; // templates[c] = board row with 'Q' at c
     private List<List<String>> results;
 
     public List<List<String>> solveNQueens(int n) {
         this.n = n;
-        this.fullMask = (1 << n) - 1;
+        this.fullMask = n == 0 ? 0 : fullMask(n); // n = 0 keeps its one empty board
         this.queens = new int[n];
         this.results = new ArrayList<>();
         buildTemplates();
@@ -83,7 +90,7 @@ class Solution {
      * @param d1Mask   occupied (row+col) diagonals bitmap
      * @param d2Mask   occupied (row-col+n-1) diagonals bitmap
      */
-    private void backtrack(int row, int colMask, int d1Mask, int d2Mask) {
+    private void backtrack(int row, long colMask, long d1Mask, long d2Mask) {
         if (row == n) {
             // build solution by referencing pre-made row‑strings
             List<String> sol = new ArrayList<>(n);
@@ -94,15 +101,407 @@ class Solution {
             return;
         }
         // bits free in this row
-        int avail = fullMask & ~(colMask | d1Mask | d2Mask);
+        long avail = fullMask & ~(colMask | d1Mask | d2Mask);
         while (avail != 0) {
-            int bit = avail & -avail; // rightmost free column
+            long bit = avail & -avail; // rightmost free column
             avail ^= bit; // remove it
-            int col = Integer.numberOfTrailingZeros(bit);
+            int col = Long.numberOfTrailingZeros(bit);
             queens[row] = col;
 
             backtrack(row + 1, colMask | bit, (d1Mask | bit) << 1, (d2Mask | bit) >>> 1);
             // no need to unset queens[row], it'll be overwritten
         }
     }
+
+    // lazy alternative to solveNQueens: queens[row] = col per solution, parallel() splits the search
+    public static Stream<int[]> queenRows(int n) {
+        return StreamSupport.stream(new NQueensSpliterator(n), false);
+    }
+
+    public static Stream<List<String>> boards(int n) {
+        String[] rows = new String[n];
+        char[] row = new char[n];
+        for (int c = 0; c < n; c++) {
+            Arrays.fill(row, '.');
+            row[c] = 'Q';
+            rows[c] = new String(row);
+        }
+        return queenRows(n).map(queens -> {
+            List<String> board = new ArrayList<>(n);
+            for (int col : queens) board.add(rows[col]);
+            return board;
+        });
+    }
+
+    /**
+     * One placement for any n without search (queens[row] = col, 0-based), or null for n = 2, 3.
+     * Evens then odds, with the standard fix-ups when n % 6 is 2 or 3.
+     */
+    public static int[] constructQueens(int n) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive");
+        if (n == 2 || n == 3) return null;
+        int[] evens = new int[n / 2];
+        int[] odds = new int[(n + 1) / 2];
+        for (int i = 0; i < evens.length; i++) evens[i] = 2 * i + 2;
+        for (int i = 0; i < odds.length; i++) odds[i] = 2 * i + 1;
+
+        if (n % 6 == 2) {
+            // swap 1 and 3, move 5 to the end
+            odds[0] = 3;
+            odds[1] = 1;
+            if (odds.length > 2) {
+                System.arraycopy(odds, 3, odds, 2, odds.length - 3);
+                odds[odds.length - 1] = 5;
+            }
+        } else if (n % 6 == 3) {
+            // move 2 to the end of the evens, 1 and 3 to the end of the odds
+            System.arraycopy(evens, 1, evens, 0, evens.length - 1);
+            evens[evens.length - 1] = 2;
+            System.arraycopy(odds, 2, odds, 0, odds.length - 2);
+            odds[odds.length - 2] = 1;
+            odds[odds.length - 1] = 3;
+        }
+
+        int[] queens = new int[n];
+        for (int i = 0; i < evens.length; i++) queens[i] = evens[i] - 1;
+        for (int i = 0; i < odds.length; i++) queens[evens.length + i] = odds[i] - 1;
+        return queens;
+    }
+
+    // random placement via min-conflicts local search; see MinConflictsQueens
+    public static int[] minConflictsQueens(int n, long seed) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive");
+        if (n == 2 || n == 3) return null;
+        return new MinConflictsQueens(n, new SplittableRandom(seed)).solve();
+    }
+
+    // O(n): one queen per row by construction, checks columns and both diagonals
+    public static boolean isValidPlacement(int[] queens) {
+        int n = queens.length;
+        boolean[] cols = new boolean[n];
+        boolean[] d1 = new boolean[2 * n];
+        boolean[] d2 = new boolean[2 * n];
+        for (int row = 0; row < n; row++) {
+            int col = queens[row];
+            if (col < 0 || col >= n) return false;
+            int a = row + col;
+            int b = row - col + n - 1;
+            if (cols[col] || d1[a] || d2[b]) return false;
+            cols[col] = d1[a] = d2[b] = true;
+        }
+        return true;
+    }
+
+    // long masks: n up to 64 columns
+    static long fullMask(int n) {
+        if (n < 1 || n > MAX_N) throw new IllegalArgumentException("n must be in 1.." + MAX_N);
+        return n == MAX_N ? -1L : (1L << n) - 1;
+    }
+
+    public long totalNQueens(int n) {
+        return totalNQueensParallel(n, null);
+    }
+
+    /**
+     * Count-only search. Mirror symmetry: only first-row queens in the left half are
+     * searched and doubled; for odd n the middle column is searched with the second-row
+     * queen restricted to the left half, also doubled. Each (first, second) row placement
+     * becomes one fork/join leaf; pass a null pool to run sequentially.
+     */
+    public long totalNQueensParallel(int n, ForkJoinPool pool) {
+        long full = fullMask(n);
+        if (n == 1) return 1;
+        List<CountTask> tasks = new ArrayList<>();
+        long half = (1L << (n / 2)) - 1;
+        for (int first = 0; first < (n + 1) / 2; first++) {
+            long bit = 1L << first;
+            // middle column of odd n: second row mirrors onto the left half
+            long secondRowLimit = (n % 2 == 1 && first == n / 2) ? half : full;
+            long avail = secondRowLimit & ~(bit | (bit << 1) | (bit >>> 1));
+            while (avail != 0) {
+                long second = avail & -avail;
+                avail ^= second;
+                long cols = bit | second;
+                long d1 = ((bit << 1) | second) << 1;
+                long d2 = ((bit >>> 1) | second) >>> 1;
+                tasks.add(new CountTask(full, cols, d1, d2));
+            }
+        }
+        long total = 0;
+        if (pool == null) {
+            for (CountTask task : tasks) total += task.compute();
+        } else {
+            for (CountTask task : pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join()) total += task.join();
+        }
+        return 2 * total;
+    }
+
+    static long count(long full, long colMask, long d1Mask, long d2Mask) {
+        if (colMask == full) return 1;
+        long total = 0;
+        long avail = full & ~(colMask | d1Mask | d2Mask);
+        while (avail != 0) {
+            long bit = avail & -avail;
+            avail ^= bit;
+            total += count(full, colMask | bit, (d1Mask | bit) << 1, (d2Mask | bit) >>> 1);
+        }
+        return total;
+    }
+
+    static final class CountTask extends RecursiveTask<Long> {
+
+        private final long full;
+        private final long colMask;
+        private final long d1Mask;
+        private final long d2Mask;
+
+        CountTask(long full, long colMask, long d1Mask, long d2Mask) {
+            this.full = full;
+            this.colMask = colMask;
+            this.d1Mask = d1Mask;
+            this.d2Mask = d2Mask;
+        }
+
+        @Override
+        protected Long compute() {
+            return count(full, colMask, d1Mask, d2Mask);
+        }
+    }
+}
+
+/**
+ * Same bitmask search as Solution.backtrack, driven by an explicit per-row stack so
+ * solutions are produced one at a time. avail[row] holds the columns still to try in
+ * that row; trySplit hands half of the shallowest row's untried columns to a new
+ * spliterator that shares the queens placed above it.
+ */
+final class NQueensSpliterator implements Spliterator<int[]> {
+
+    private final int n;
+    private final long full;
+    private final int base;
+    private final int[] queens;
+    private final long[] avail;
+    private final long[] colMask;
+    private final long[] d1Mask;
+    private final long[] d2Mask;
+    private int depth;
+
+    NQueensSpliterator(int n) {
+        this(n, 0, new int[n], 0, 0, 0, Solution.fullMask(n));
+    }
+
+    private NQueensSpliterator(int n, int base, int[] prefix, long cols, long d1, long d2, long rootAvail) {
+        this.n = n;
+        this.full = Solution.fullMask(n);
+        this.base = base;
+        this.queens = Arrays.copyOf(prefix, n);
+        this.avail = new long[n];
+        this.colMask = new long[n];
+        this.d1Mask = new long[n];
+        this.d2Mask = new long[n];
+        this.depth = base;
+        colMask[base] = cols;
+        d1Mask[base] = d1;
+        d2Mask[base] = d2;
+        avail[base] = rootAvail;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        while (depth >= base) {
+            long free = avail[depth];
+            if (free == 0) {
+                depth--;
+                continue;
+            }
+            long bit = free & -free;
+            avail[depth] = free ^ bit;
+            queens[depth] = Long.numberOfTrailingZeros(bit);
+            if (depth == n - 1) {
+                action.accept(queens.clone());
+                return true;
+            }
+            int next = depth + 1;
+            colMask[next] = colMask[depth] | bit;
+            d1Mask[next] = (d1Mask[depth] | bit) << 1;
+            d2Mask[next] = (d2Mask[depth] | bit) >>> 1;
+            avail[next] = full & ~(colMask[next] | d1Mask[next] | d2Mask[next]);
+            depth = next;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        for (int row = base; row <= depth; row++) {
+            long free = avail[row];
+            int count = Long.bitCount(free);
+            if (count < 2) continue;
+            long taken = 0;
+            for (int i = 0; i < count / 2; i++) {
+                long bit = free & -free;
+                free ^= bit;
+                taken |= bit;
+            }
+            avail[row] = free;
+            return new NQueensSpliterator(n, row, queens, colMask[row], d1Mask[row], d2Mask[row], taken);
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+}
+
+/**
+ * Min-conflicts over a permutation (Sosic and Gu style): columns are always distinct, so
+ * only diagonals can collide. Rows are first placed greedily on a free diagonal pair when a
+ * few random tries find one, then each pass collects the colliding rows and repairs them by
+ * swaps with random rows that lower the collision count. Diagonal occupancy lives in two int[] counters; expected O(n).
+ */
+final class MinConflictsQueens {
+
+    private static final int PLACE_TRIES = 32;
+    private static final int SWAP_TRIES = 64;
+    private static final int MAX_PASSES = 64;
+
+    private final int n;
+    private final SplittableRandom random;
+    private final int[] queens;
+    private final int[] d1; // row + col
+    private final int[] d2; // row - col + n - 1
+    private long collisions;
+
+    MinConflictsQueens(int n, SplittableRandom random) {
+        this.n = n;
+        this.random = random;
+        this.queens = new int[n];
+        this.d1 = new int[2 * n - 1];
+        this.d2 = new int[2 * n - 1];
+    }
+
+    int[] solve() {
+        int[] pending = new int[n];
+        while (true) {
+            initialize();
+            for (int pass = 0; collisions > 0 && pass < MAX_PASSES; pass++) {
+                // O(n) rescan per pass; after the greedy start only a few rows collide
+                int count = 0;
+                for (int row = 0; row < n; row++) {
+                    if (colliding(row)) pending[count++] = row;
+                }
+                for (int i = 0; i < count && collisions > 0; i++) {
+                    int row = pending[i];
+                    for (int t = 0; t < SWAP_TRIES && colliding(row); t++) {
+                        int other = random.nextInt(n);
+                        if (other != row) trySwap(row, other);
+                    }
+                }
+            }
+            if (collisions == 0) return queens;
+            // stuck in a local minimum (small n): restart from a fresh permutation
+        }
+    }
+
+    private void initialize() {
+        Arrays.fill(d1, 0);
+        Arrays.fill(d2, 0);
+        collisions = 0;
+        for (int i = 0; i < n; i++) queens[i] = i;
+        for (int row = 0; row < n; row++) {
+            int pick = row + random.nextInt(n - row);
+            for (int t = 0; t < PLACE_TRIES; t++) {
+                int j = row + random.nextInt(n - row);
+                int col = queens[j];
+                if (d1[row + col] == 0 && d2[row - col + n - 1] == 0) {
+                    pick = j;
+                    break;
+                }
+            }
+            int col = queens[pick];
+            queens[pick] = queens[row];
+            queens[row] = col;
+            add(row, col);
+        }
+    }
+
+    private boolean colliding(int row) {
+        int col = queens[row];
+        return d1[row + col] > 1 || d2[row - col + n - 1] > 1;
+    }
+
+    // swaps the columns of rows a and b, keeps it only if collisions drop
+    private boolean trySwap(int a, int b) {
+        long before = collisions;
+        int ca = queens[a], cb = queens[b];
+        remove(a, ca);
+        remove(b, cb);
+        add(a, cb);
+        add(b, ca);
+        if (collisions < before) {
+            queens[a] = cb;
+            queens[b] = ca;
+            return true;
+        }
+        remove(a, cb);
+        remove(b, ca);
+        add(a, ca);
+        add(b, cb);
+        return false;
+    }
+
+    private void add(int row, int col) {
+        if (d1[row + col]++ > 0) collisions++;
+        if (d2[row - col + n - 1]++ > 0) collisions++;
+    }
+
+    private void remove(int row, int col) {
+        if (--d1[row + col] > 0) collisions--;
+        if (--d2[row - col + n - 1] > 0) collisions--;
+    }
+}
+
+// Usage: java NQueensLargeBenchmark [maxN]
+// Times constructQueens, minConflictsQueens and the O(n) verifier from n = 1e3 up to maxN.
+class NQueensLargeBenchmark {
+
+    public static void main(String[] args) {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.printf("%-10s %14s %16s %12s%n", "n", "construct ms", "minConflicts ms", "verify ms");
+        for (int n = 1000; n <= maxN; n *= 10) {
+            long t0 = System.nanoTime();
+            int[] constructed = Solution.constructQueens(n);
+            long t1 = System.nanoTime();
+            int[] searched = Solution.minConflictsQueens(n, 42);
+            long t2 = System.nanoTime();
+            boolean ok = Solution.isValidPlacement(constructed) && Solution.isValidPlacement(searched);
+            long t3 = System.nanoTime();
+            if (!ok) throw new IllegalStateException("invalid placement for n=" + n);
+            System.out.printf("%-10d %14.1f %16.1f %12.1f%n", n, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 2e6);
+        }
+    }
+}
+
+// Usage: java NQueensCountBenchmark [maxN]
+// Prints the solution count and wall time per n on the common pool.
+class NQueensCountBenchmark {
+
+    public static void main(String[] args) {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : 18;
+        Solution solution = new Solution();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int n = 1; n <= maxN; n++) {
+            long start = System.nanoTime();
+            long count = solution.totalNQueensParallel(n, pool);
+            System.out.printf("n=%-3d %,20d solutions %10.1f ms%n", n, count, (System.nanoTime() - start) / 1e6);
+        }
+    }
 }
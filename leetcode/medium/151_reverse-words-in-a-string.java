@@ -1,3 +1,8 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
 class Solution {
 
     public String reverseWords(String s) {
@@ -7,25 +12,170 @@ class Solution {
         return new String(arr, 0, ind);
     }
 
+    // walks words right to left instead of recursing once per word
     public int reversewordslength(char[] st, char[] arr, int start) {
-        while (start < st.length && st[start] == ' ') {
-            start++;
+        int reversedwordlen = 0;
+        int end = st.length;
+        while (end > start) {
+            while (end > start && st[end - 1] == ' ') {
+                end--;
+            }
+            int wordStart = end;
+            while (wordStart > start && st[wordStart - 1] != ' ') {
+                wordStart--;
+            }
+            if (wordStart == end) {
+                break;
+            }
+            if (reversedwordlen != 0) {
+                arr[reversedwordlen++] = ' ';
+            }
+            for (int i = wordStart; i < end; i++) {
+                arr[reversedwordlen++] = st[i];
+            }
+            end = wordStart;
         }
-        int end = start;
-        while (end < st.length && st[end] != ' ') {
-            end++;
+        return reversedwordlen;
+    }
+
+    // reverses word order inside st itself, returns the length of the collapsed result
+    public int reverseWordsInPlace(char[] st) {
+        reverse(st, 0, st.length);
+        int len = 0;
+        int i = 0;
+        while (i < st.length) {
+            while (i < st.length && st[i] == ' ') {
+                i++;
+            }
+            if (i == st.length) {
+                break;
+            }
+            if (len != 0) {
+                st[len++] = ' ';
+            }
+            int wordStart = len;
+            while (i < st.length && st[i] != ' ') {
+                st[len++] = st[i++];
+            }
+            reverse(st, wordStart, len);
         }
-        if (start - end == 0) {
-            return 0;
+        return len;
+    }
+
+    private static void reverse(char[] st, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            char t = st[i];
+            st[i] = st[j];
+            st[j] = t;
         }
-        int reversedwordlen = reversewordslength(st, arr, end);
-        if (reversedwordlen != 0) {
-            arr[reversedwordlen] = ' ';
-            reversedwordlen++;
+    }
+}
+
+/**
+ * reverseWords for files too large for memory. The input is read backwards in blocks;
+ * each word found is appended to the output, separated by single spaces, so runs of ' '
+ * collapse exactly like Solution.reverseWords. Words that fit in the current block are
+ * copied from it, longer ones go through FileChannel.transferTo, so memory stays at two
+ * blocks regardless of file or word size. Works on bytes: UTF-8 text never has 0x20
+ * inside a multi-byte character.
+ */
+final class ReverseWordsStream {
+
+    static final int DEFAULT_BLOCK = 1 << 16;
+
+    private final FileChannel in;
+    private final FileChannel out;
+    private final ByteBuffer block;
+    private final ByteBuffer output;
+    private long blockStart;
+    private boolean first = true;
+
+    private ReverseWordsStream(FileChannel in, FileChannel out, int blockSize) {
+        this.in = in;
+        this.out = out;
+        this.block = ByteBuffer.allocate(blockSize);
+        this.output = ByteBuffer.allocate(blockSize);
+    }
+
+    static long reverse(Path source, Path target) throws IOException {
+        return reverse(source, target, DEFAULT_BLOCK);
+    }
+
+    // returns the number of bytes written
+    static long reverse(Path source, Path target, int blockSize) throws IOException {
+        try (
+            FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(
+                target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            new ReverseWordsStream(in, out, blockSize).run();
+            return out.size();
         }
-        while (start < end) {
-            arr[reversedwordlen++] = st[start++];
+    }
+
+    private void run() throws IOException {
+        long pos = in.size();
+        long wordEnd = -1;
+        while (pos > 0) {
+            blockStart = Math.max(0, pos - block.capacity());
+            block.clear().limit((int) (pos - blockStart));
+            while (block.hasRemaining()) {
+                if (in.read(block, blockStart + block.position()) < 0) throw new EOFException();
+            }
+            for (int i = block.limit() - 1; i >= 0; i--) {
+                if (block.get(i) == ' ') {
+                    if (wordEnd >= 0) {
+                        emit(blockStart + i + 1, wordEnd);
+                        wordEnd = -1;
+                    }
+                } else if (wordEnd < 0) {
+                    wordEnd = blockStart + i + 1;
+                }
+            }
+            pos = blockStart;
         }
-        return reversedwordlen;
+        if (wordEnd >= 0) emit(0, wordEnd);
+        flush();
+    }
+
+    private void emit(long start, long end) throws IOException {
+        if (!first) put((byte) ' ');
+        first = false;
+        if (end <= blockStart + block.limit()) {
+            for (int i = (int) (start - blockStart); i < end - blockStart; i++) put(block.get(i));
+            return;
+        }
+        // word started in this block but ended in a later one: copy file to file
+        flush();
+        for (long done = 0; done < end - start; ) {
+            done += in.transferTo(start + done, end - start - done, out);
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!output.hasRemaining()) flush();
+        output.put(b);
+    }
+
+    private void flush() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) out.write(output);
+        output.clear();
+    }
+}
+
+// Usage: java ReverseWordsStreamBenchmark <input> <output>
+class ReverseWordsStreamBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path in = Paths.get(args[0]);
+        long start = System.nanoTime();
+        long written = ReverseWordsStream.reverse(in, Paths.get(args[1]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d -> %d bytes in %.2fs: %.1f MB/s%n", Files.size(in), written, seconds, Files.size(in) / seconds / (1 << 20));
     }
 }
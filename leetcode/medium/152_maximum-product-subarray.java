@@ -1,3 +1,6 @@
+import java.util.*;
+import java.util.concurrent.*;
+
 class Solution {
 
     public int maxProduct(int[] nums) {
@@ -20,4 +23,347 @@ class Solution {
         }
         return maxProd;
     }
+
+    // long result, any length; throws ArithmeticException if the answer does not fit
+    public long maxProductParallel(int[] nums) {
+        return ProductSummary.maxProduct(nums);
+    }
+}
+
+/**
+ * Max-product-subarray as a monoid. A summary of a range is seven longs: the best subarray
+ * product, the max/min product of a prefix, the max/min product of a suffix, the total
+ * (which is zero exactly when the range contains a zero, so it doubles as the zero flag),
+ * and a bitmask of which of those saturated. Two adjacent summaries combine in O(1): a
+ * subarray crossing the seam is a suffix of the left times a prefix of the right, and the
+ * extremes of that product come from the four extreme pairs. Summaries live in flat long[]
+ * slots so RangeMaxProduct can store a tree of them without node objects.
+ *
+ * Products that leave the long range saturate to Long.MAX_VALUE / Long.MIN_VALUE with their
+ * SAT bit set and act as +/-infinity from then on: times zero is zero, times anything else
+ * follows the sign rule, and they beat an exact value at the same bound in max/min. The bit,
+ * not the value, marks saturation, so exact products at the bounds stay exact
+ * (2^63 - 1 = 49 * 73 * 127 * 337 * 92737 * 649657).
+ */
+final class ProductSummary {
+
+    static final int BEST = 0, PMAX = 1, PMIN = 2, SMAX = 3, SMIN = 4, TOTAL = 5, SAT = 6;
+    static final int WIDTH = 7;
+    static final int THRESHOLD = 1 << 16;
+
+    private ProductSummary() {}
+
+    static long maxProduct(int[] nums) {
+        if (nums.length == 0) throw new IllegalArgumentException("empty array");
+        long[] summary = nums.length <= THRESHOLD
+            ? of(nums, 0, nums.length)
+            : ForkJoinPool.commonPool().invoke(new SummaryTask(nums, 0, nums.length));
+        return best(summary, 0);
+    }
+
+    static long best(long[] summary, int at) {
+        if (sat(summary[at + SAT], BEST)) throw new ArithmeticException("maximum product overflows long");
+        return summary[at + BEST];
+    }
+
+    static long[] of(int[] nums, int from, int to) {
+        long[] out = new long[WIDTH];
+        leaf(nums, from, to, out, 0);
+        return out;
+    }
+
+    static void single(long value, long[] out, int at) {
+        for (int f = 0; f < SAT; f++) out[at + f] = value;
+        out[at + SAT] = 0;
+    }
+
+    // one pass: endMax/endMin are the extreme products of subarrays ending at i
+    static void leaf(int[] nums, int from, int to, long[] out, int at) {
+        long x = nums[from];
+        long best = x, endMax = x, endMin = x;
+        long total = x, pmax = x, pmin = x;
+        boolean bestS = false, endMaxS = false, endMinS = false, totalS = false, pmaxS = false, pminS = false;
+        for (int i = from + 1; i < to; i++) {
+            x = nums[i];
+            long a = mul(endMax, endMaxS, x, false), b = mul(endMin, endMinS, x, false);
+            boolean aS = mulSat(endMax, endMaxS, x, false), bS = mulSat(endMin, endMinS, x, false);
+            long hi = Math.max(a, b), lo = Math.min(a, b);
+            boolean hiS = maxSat(a, aS, b, bS), loS = minSat(a, aS, b, bS);
+            endMaxS = maxSat(hi, hiS, x, false);
+            endMax = Math.max(hi, x);
+            endMinS = minSat(lo, loS, x, false);
+            endMin = Math.min(lo, x);
+
+            bestS = maxSat(best, bestS, endMax, endMaxS);
+            best = Math.max(best, endMax);
+
+            long t = mul(total, totalS, x, false);
+            totalS = mulSat(total, totalS, x, false);
+            total = t;
+            pmaxS = maxSat(pmax, pmaxS, total, totalS);
+            pmax = Math.max(pmax, total);
+            pminS = minSat(pmin, pminS, total, totalS);
+            pmin = Math.min(pmin, total);
+        }
+        out[at + BEST] = best;
+        out[at + PMAX] = pmax;
+        out[at + PMIN] = pmin;
+        out[at + SMAX] = endMax;
+        out[at + SMIN] = endMin;
+        out[at + TOTAL] = total;
+        out[at + SAT] = bit(bestS, BEST) | bit(pmaxS, PMAX) | bit(pminS, PMIN)
+            | bit(endMaxS, SMAX) | bit(endMinS, SMIN) | bit(totalS, TOTAL);
+    }
+
+    // out may alias either input
+    static void combine(long[] l, int li, long[] r, int ri, long[] out, int oi) {
+        long ls = l[li + SAT], rs = r[ri + SAT];
+        long lt = l[li + TOTAL], rt = r[ri + TOTAL];
+        boolean ltS = sat(ls, TOTAL), rtS = sat(rs, TOTAL);
+        long lsMax = l[li + SMAX], lsMin = l[li + SMIN];
+        boolean lsMaxS = sat(ls, SMAX), lsMinS = sat(ls, SMIN);
+        long rpMax = r[ri + PMAX], rpMin = r[ri + PMIN];
+        boolean rpMaxS = sat(rs, PMAX), rpMinS = sat(rs, PMIN);
+
+        // the seam's extremes: max and min over the four suffix * prefix pairs
+        long c1 = mul(lsMax, lsMaxS, rpMax, rpMaxS), c2 = mul(lsMax, lsMaxS, rpMin, rpMinS);
+        long c3 = mul(lsMin, lsMinS, rpMax, rpMaxS), c4 = mul(lsMin, lsMinS, rpMin, rpMinS);
+        boolean c1S = mulSat(lsMax, lsMaxS, rpMax, rpMaxS), c2S = mulSat(lsMax, lsMaxS, rpMin, rpMinS);
+        boolean c3S = mulSat(lsMin, lsMinS, rpMax, rpMaxS), c4S = mulSat(lsMin, lsMinS, rpMin, rpMinS);
+        long c12 = Math.max(c1, c2), c34 = Math.max(c3, c4);
+        boolean c12S = maxSat(c1, c1S, c2, c2S), c34S = maxSat(c3, c3S, c4, c4S);
+        long seam = Math.max(c12, c34);
+        boolean seamS = maxSat(c12, c12S, c34, c34S);
+
+        long lb = l[li + BEST], rb = r[ri + BEST];
+        long sides = Math.max(lb, rb);
+        boolean sidesS = maxSat(lb, sat(ls, BEST), rb, sat(rs, BEST));
+        long best = Math.max(sides, seam);
+        boolean bestS = maxSat(sides, sidesS, seam, seamS);
+
+        // prefixes: the left's own, or all of the left times a prefix of the right
+        long p1 = mul(lt, ltS, rpMax, rpMaxS), p2 = mul(lt, ltS, rpMin, rpMinS);
+        boolean p1S = mulSat(lt, ltS, rpMax, rpMaxS), p2S = mulSat(lt, ltS, rpMin, rpMinS);
+        long pHi = Math.max(p1, p2), pLo = Math.min(p1, p2);
+        boolean pHiS = maxSat(p1, p1S, p2, p2S), pLoS = minSat(p1, p1S, p2, p2S);
+        long pmax = Math.max(l[li + PMAX], pHi), pmin = Math.min(l[li + PMIN], pLo);
+        boolean pmaxS = maxSat(l[li + PMAX], sat(ls, PMAX), pHi, pHiS);
+        boolean pminS = minSat(l[li + PMIN], sat(ls, PMIN), pLo, pLoS);
+
+        // suffixes: the right's own, or a suffix of the left times all of the right
+        long s1 = mul(rt, rtS, lsMax, lsMaxS), s2 = mul(rt, rtS, lsMin, lsMinS);
+        boolean s1S = mulSat(rt, rtS, lsMax, lsMaxS), s2S = mulSat(rt, rtS, lsMin, lsMinS);
+        long sHi = Math.max(s1, s2), sLo = Math.min(s1, s2);
+        boolean sHiS = maxSat(s1, s1S, s2, s2S), sLoS = minSat(s1, s1S, s2, s2S);
+        long smax = Math.max(r[ri + SMAX], sHi), smin = Math.min(r[ri + SMIN], sLo);
+        boolean smaxS = maxSat(r[ri + SMAX], sat(rs, SMAX), sHi, sHiS);
+        boolean sminS = minSat(r[ri + SMIN], sat(rs, SMIN), sLo, sLoS);
+
+        long total = mul(lt, ltS, rt, rtS);
+        boolean totalS = mulSat(lt, ltS, rt, rtS);
+
+        out[oi + BEST] = best;
+        out[oi + PMAX] = pmax;
+        out[oi + PMIN] = pmin;
+        out[oi + SMAX] = smax;
+        out[oi + SMIN] = smin;
+        out[oi + TOTAL] = total;
+        out[oi + SAT] = bit(bestS, BEST) | bit(pmaxS, PMAX) | bit(pminS, PMIN)
+            | bit(smaxS, SMAX) | bit(sminS, SMIN) | bit(totalS, TOTAL);
+    }
+
+    // saturating multiply; the flags say whether a and b are already +/-infinity
+    static long mul(long a, boolean aS, long b, boolean bS) {
+        if (a == 0 || b == 0) return 0;
+        if (!aS && !bS) {
+            long lo = a * b;
+            if (Math.multiplyHigh(a, b) == (lo >> 63)) return lo;
+        }
+        return (a ^ b) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    static boolean mulSat(long a, boolean aS, long b, boolean bS) {
+        if (a == 0 || b == 0) return false;
+        return aS || bS || Math.multiplyHigh(a, b) != (a * b) >> 63;
+    }
+
+    // saturation flag of Math.max(a, b): on a tie at MAX, +infinity wins; at MIN, the exact value does
+    static boolean maxSat(long a, boolean aS, long b, boolean bS) {
+        if (a != b) return a > b ? aS : bS;
+        return a > 0 ? aS | bS : aS & bS;
+    }
+
+    // saturation flag of Math.min(a, b), mirrored
+    static boolean minSat(long a, boolean aS, long b, boolean bS) {
+        if (a != b) return a < b ? aS : bS;
+        return a < 0 ? aS | bS : aS & bS;
+    }
+
+    private static boolean sat(long mask, int field) {
+        return (mask >>> field & 1) != 0;
+    }
+
+    private static long bit(boolean saturated, int field) {
+        return saturated ? 1L << field : 0;
+    }
+
+    static final class SummaryTask extends RecursiveTask<long[]> {
+
+        private final int[] nums;
+        private final int from;
+        private final int to;
+
+        SummaryTask(int[] nums, int from, int to) {
+            this.nums = nums;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= THRESHOLD) return of(nums, from, to);
+            int mid = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(nums, from, mid);
+            left.fork();
+            long[] right = new SummaryTask(nums, mid, to).compute();
+            long[] out = left.join();
+            combine(out, 0, right, 0, out, 0);
+            return out;
+        }
+    }
+}
+
+/**
+ * Range max-product-subarray queries with point updates, O(log n) each. A bottom-up segment
+ * tree over ProductSummary slots: node k occupies tree[k * WIDTH, (k + 1) * WIDTH), leaves
+ * start at node n. The summary monoid is not commutative, so a query folds the left and
+ * right boundary nodes into separate accumulators and joins them at the end. Not thread-safe:
+ * queries share the two accumulator slots.
+ */
+final class RangeMaxProduct {
+
+    private static final int W = ProductSummary.WIDTH;
+
+    private final int n;
+    private final long[] tree;
+    private final long[] acc = new long[2 * W];
+
+    RangeMaxProduct(int[] nums) {
+        n = nums.length;
+        tree = new long[2 * n * W];
+        for (int i = 0; i < n; i++) ProductSummary.leaf(nums, i, i + 1, tree, (n + i) * W);
+        for (int k = n - 1; k > 0; k--) pull(k);
+    }
+
+    int size() {
+        return n;
+    }
+
+    void set(int index, int value) {
+        Objects.checkIndex(index, n);
+        int k = n + index;
+        ProductSummary.single(value, tree, k * W);
+        for (k >>= 1; k > 0; k >>= 1) pull(k);
+    }
+
+    // best product of a subarray of nums[from..to], both inclusive
+    long maxProduct(int from, int to) {
+        Objects.checkFromToIndex(from, to + 1, n);
+        if (from > to) throw new IllegalArgumentException("empty range");
+        boolean hasLeft = false, hasRight = false;
+        for (int l = from + n, r = to + n + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                if (hasLeft) ProductSummary.combine(acc, 0, tree, l * W, acc, 0);
+                else System.arraycopy(tree, l * W, acc, 0, W);
+                hasLeft = true;
+                l++;
+            }
+            if ((r & 1) == 1) {
+                r--;
+                if (hasRight) ProductSummary.combine(tree, r * W, acc, W, acc, W);
+                else System.arraycopy(tree, r * W, acc, W, W);
+                hasRight = true;
+            }
+        }
+        if (!hasLeft) return ProductSummary.best(acc, W);
+        if (hasRight) ProductSummary.combine(acc, 0, acc, W, acc, 0);
+        return ProductSummary.best(acc, 0);
+    }
+
+    private void pull(int k) {
+        ProductSummary.combine(tree, 2 * k * W, tree, (2 * k + 1) * W, tree, k * W);
+    }
+}
+
+// Usage: java RangeMaxProductBenchmark [length] [window]
+class RangeMaxProductBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int[] nums = new int[n];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) nums[i] = sample(random);
+        RangeMaxProduct index = new RangeMaxProduct(nums);
+        int queries = 100_000;
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            long sink = 0;
+            for (int q = 0; q < queries; q++) {
+                int from = random.nextInt(n - window);
+                index.set(random.nextInt(n), sample(random));
+                try {
+                    sink += index.maxProduct(from, from + window - 1);
+                } catch (ArithmeticException overflow) {
+                    sink--;
+                }
+            }
+            long t1 = System.nanoTime();
+            System.out.printf(
+                "%d ints, window %d: %.0f ns per update + query (%d)%n",
+                n,
+                window,
+                (t1 - t0) / (double) queries,
+                sink
+            );
+        }
+    }
+
+    // same mix as MaxProductBenchmark, so most windows stay in range
+    static int sample(SplittableRandom random) {
+        int r = random.nextInt(1000);
+        return r == 0 ? 0 : r < 3 ? 2 : r < 500 ? 1 : -1;
+    }
+}
+
+// Usage: java MaxProductBenchmark [length]
+class MaxProductBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000_000;
+        int[] nums = new int[n];
+        SplittableRandom random = new SplittableRandom(42);
+        // mostly 1 and -1 with sparse zeros and small factors, so products stay in range
+        for (int i = 0; i < n; i++) {
+            int r = random.nextInt(1000);
+            nums[i] = r == 0 ? 0 : r < 3 ? 2 : r < 500 ? 1 : -1;
+        }
+        Solution solution = new Solution();
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            long sequential = ProductSummary.best(ProductSummary.of(nums, 0, n), 0);
+            long t1 = System.nanoTime();
+            long parallel = solution.maxProductParallel(nums);
+            long t2 = System.nanoTime();
+            System.out.printf(
+                "%d ints: sequential %d in %.0f ms, fork/join %d in %.0f ms (%d cores)%n",
+                n,
+                sequential,
+                (t1 - t0) / 1e6,
+                parallel,
+                (t2 - t1) / 1e6,
+                Runtime.getRuntime().availableProcessors()
+            );
+        }
+    }
 }
@@ -1,3 +1,11 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
 class Solution {
 
     public int findPeakElement(int[] nums) {
@@ -19,4 +27,225 @@ class Solution {
         // left == right is the index of a peak
         return left;
     }
+
+    // one index per peak findPeakElement could land on, in order; flat tops report their middle
+    public int[] findAllPeaks(int[] nums) {
+        return AllPeaks.find(nums, 0);
+    }
+}
+
+/**
+ * All local maxima, with findPeakElement's convention that nums[-1] and nums[n] are
+ * -infinity. A peak is a maximal run of equal samples (often just one) whose neighbours on
+ * both sides are lower; it is reported at the middle of the run, rounded down. Chunks are
+ * scanned in parallel and a run belongs to the chunk holding its first sample: a chunk skips
+ * a run continuing from its left neighbour and reads past its own end to finish its last run,
+ * so a flat top straddling a chunk edge is found exactly once.
+ * A minimum prominence (peak height minus the higher of the lowest points between it and
+ * the nearest strictly higher sample on each side, or the series end) is applied afterwards
+ * with two monotonic-stack passes, left and right, which run concurrently. The passes keep
+ * a base per peak, not per sample; their stacks grow with the longest staircase of
+ * successively higher samples, which is small for noisy series but O(n) for a monotone one.
+ * Indices are long so mapped files past 2^31 samples work; files are mapped in 1 GiB windows.
+ */
+final class AllPeaks {
+
+    static final int DEFAULT_CHUNK = 1 << 20;
+    private static final int WINDOW_BYTES = 1 << 30;
+
+    private AllPeaks() {}
+
+    static int[] find(int[] values, double minProminence) {
+        return toInts(find(values.length, i -> values[(int) i], minProminence));
+    }
+
+    static int[] find(double[] values, double minProminence) {
+        return toInts(find(values.length, i -> values[(int) i], minProminence));
+    }
+
+    // big-endian int32 or float64 samples
+    static long[] find(Path file, boolean doubles, double minProminence) throws IOException {
+        int width = doubles ? Double.BYTES : Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % width != 0) throw new IllegalArgumentException(file + " is not a whole number of samples");
+            long n = size / width;
+            int shift = Integer.numberOfTrailingZeros(WINDOW_BYTES / width);
+            long mask = (1L << shift) - 1;
+            int windows = (int) ((size + WINDOW_BYTES - 1) / WINDOW_BYTES);
+            if (doubles) {
+                DoubleBuffer[] buf = new DoubleBuffer[windows];
+                for (int w = 0; w < windows; w++) buf[w] = window(channel, size, w).asDoubleBuffer();
+                return find(n, i -> buf[(int) (i >>> shift)].get((int) (i & mask)), minProminence);
+            }
+            IntBuffer[] buf = new IntBuffer[windows];
+            for (int w = 0; w < windows; w++) buf[w] = window(channel, size, w).asIntBuffer();
+            return find(n, i -> buf[(int) (i >>> shift)].get((int) (i & mask)), minProminence);
+        }
+    }
+
+    static long[] find(long n, LongToDoubleFunction at, double minProminence) {
+        long chunks = (n + DEFAULT_CHUNK - 1) / DEFAULT_CHUNK;
+        long[] peaks = LongStream.range(0, chunks)
+            .parallel()
+            .mapToObj(c -> {
+                long from = c * DEFAULT_CHUNK;
+                return scan(n, at, from, from + Math.min(n - from, DEFAULT_CHUNK));
+            })
+            .flatMapToLong(LongStream::of)
+            .toArray();
+        if (minProminence <= 0 || peaks.length == 0) return peaks;
+
+        double[][] bases = new double[2][];
+        IntStream.range(0, 2).parallel().forEach(side -> bases[side] = bases(n, at, peaks, side == 0));
+        return IntStream.range(0, peaks.length)
+            .filter(p -> at.applyAsDouble(peaks[p]) - Math.max(bases[0][p], bases[1][p]) >= minProminence)
+            .mapToLong(p -> peaks[p])
+            .toArray();
+    }
+
+    private static MappedByteBuffer window(FileChannel channel, long size, int w) throws IOException {
+        long from = (long) w * WINDOW_BYTES;
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW_BYTES, size - from));
+    }
+
+    private static int[] toInts(long[] peaks) {
+        int[] out = new int[peaks.length];
+        for (int p = 0; p < peaks.length; p++) out[p] = (int) peaks[p];
+        return out;
+    }
+
+    private static long[] scan(long n, LongToDoubleFunction at, long from, long to) {
+        long[] out = new long[16];
+        int count = 0;
+        long i = from;
+        if (i > 0) {
+            double carried = at.applyAsDouble(i - 1);
+            while (i < to && at.applyAsDouble(i) == carried) i++;
+        }
+        while (i < to) {
+            double v = at.applyAsDouble(i);
+            long end = i;
+            while (end + 1 < n && at.applyAsDouble(end + 1) == v) end++;
+            boolean peak = (i == 0 || at.applyAsDouble(i - 1) < v) && (end + 1 == n || at.applyAsDouble(end + 1) < v);
+            if (peak) {
+                if (count == out.length) out = Arrays.copyOf(out, count * 2);
+                out[count++] = (i + end) >>> 1;
+            }
+            i = end + 1;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * base[p] = lowest sample between peaks[p] and the nearest strictly higher sample on one
+     * side (or that end of the series). Stack entries hold an index and the minimum of the
+     * range it absorbed; popping an entry folds its range into the new one, so the pass is O(n).
+     */
+    private static double[] bases(long n, LongToDoubleFunction at, long[] peaks, boolean fromLeft) {
+        double[] base = new double[peaks.length];
+        long[] stack = new long[1024];
+        double[] rangeMin = new double[stack.length];
+        int top = 0;
+        int p = fromLeft ? 0 : peaks.length - 1;
+        for (long step = 0; step < n; step++) {
+            long i = fromLeft ? step : n - 1 - step;
+            double v = at.applyAsDouble(i);
+            double min = v;
+            while (top > 0 && at.applyAsDouble(stack[top - 1]) <= v) {
+                min = Math.min(min, rangeMin[--top]);
+            }
+            if (p >= 0 && p < peaks.length && peaks[p] == i) {
+                base[p] = min;
+                p += fromLeft ? 1 : -1;
+            }
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+                rangeMin = Arrays.copyOf(rangeMin, top * 2);
+            }
+            stack[top] = i;
+            rangeMin[top++] = min;
+        }
+        return base;
+    }
+}
+
+/**
+ * Incremental peak detection for appended samples, same rule as AllPeaks: a run of equal
+ * samples is decided when the first different sample arrives (or at finish()), and reported
+ * at its middle if it rose into the run and falls out of it.
+ */
+final class PeakTracker {
+
+    private final LongConsumer onPeak;
+    private long count;
+    private long runStart;
+    private double runValue;
+    private boolean roseIntoRun;
+
+    PeakTracker(LongConsumer onPeak) {
+        this.onPeak = onPeak;
+    }
+
+    void add(double sample) {
+        if (count > 0 && sample == runValue) {
+            count++;
+            return;
+        }
+        if (count > 0 && roseIntoRun && sample < runValue) onPeak.accept((runStart + count - 1) >>> 1);
+        roseIntoRun = count == 0 || sample > runValue;
+        runStart = count;
+        runValue = sample;
+        count++;
+    }
+
+    // the newest run is a peak only if nothing higher follows it
+    void finish() {
+        if (count > 0 && roseIntoRun) onPeak.accept((runStart + count - 1) >>> 1);
+    }
+}
+
+// Usage: java AllPeaksBenchmark [samples]
+class AllPeaksBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        double[] series = new double[n];
+        SplittableRandom random = new SplittableRandom(42);
+        double walk = 0;
+        for (int i = 0; i < n; i++) series[i] = walk += random.nextDouble() - 0.5;
+        checkChunkEdgePlateau();
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            int all = AllPeaks.find(series, 0).length;
+            long t1 = System.nanoTime();
+            int prominent = AllPeaks.find(series, 5.0).length;
+            long t2 = System.nanoTime();
+            System.out.printf(
+                "%d samples: %d peaks in %.0f ms, %d with prominence >= 5 in %.0f ms (%d cores)%n",
+                n,
+                all,
+                (t1 - t0) / 1e6,
+                prominent,
+                (t2 - t1) / 1e6,
+                Runtime.getRuntime().availableProcessors()
+            );
+        }
+    }
+
+    // a flat top spanning a chunk edge is one peak, reported by the chunk it starts in
+    static void checkChunkEdgePlateau() {
+        int edge = AllPeaks.DEFAULT_CHUNK;
+        int[] series = new int[2 * edge];
+        for (int i = edge - 3; i <= edge + 4; i++) series[i] = 7;
+        LongStream.Builder seen = LongStream.builder();
+        PeakTracker tracker = new PeakTracker(seen::add);
+        for (int v : series) tracker.add(v);
+        tracker.finish();
+        long[] tracked = seen.build().toArray();
+        int[] found = AllPeaks.find(series, 0);
+        if (found.length != 1 || found[0] != edge || tracked.length != 1 || tracked[0] != edge) {
+            throw new IllegalStateException("plateau on chunk edge: " + Arrays.toString(found) + " " + Arrays.toString(tracked));
+        }
+    }
 }
@@ -1,3 +1,12 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
 class Solution {
 
     String[] mapping = new String[] {
@@ -32,6 +41,8 @@ class Solution {
     }
 
     public List<String> letterCombinations(String digits) {
+        // fresh list per call, otherwise results pile up across calls on one instance
+        res = new ArrayList<>();
         if (digits.length() == 0) {
             return res;
         }
@@ -40,4 +51,358 @@ class Solution {
 
         return res;
     }
+
+    // lazy, index-addressable view of the same combinations in the same order
+    public LetterCombinations combinations(String digits) {
+        return new LetterCombinations(digits, mapping);
+    }
+
+    // reverse direction: look words up by digits instead of expanding every combination
+    public T9Index t9Index(Collection<String> words) {
+        return T9Index.build(words, mapping);
+    }
+}
+
+/**
+ * Combination i is i written in mixed radix, one digit per phone key with radix
+ * mapping[key].length(), most significant key first, which is the order phoneComb
+ * produces. size() is a long (up to 4^31); get(i) decodes any index directly and the
+ * spliterator splits index ranges in half, so parallel streams never materialize the list.
+ */
+final class LetterCombinations {
+
+    private final String[] letters;
+    private final long size;
+
+    LetterCombinations(String digits, String[] mapping) {
+        this.letters = new String[digits.length()];
+        long count = digits.isEmpty() ? 0 : 1;
+        for (int i = 0; i < digits.length(); i++) {
+            int key = digits.charAt(i) - '0';
+            if (key < 0 || key > 9) throw new IllegalArgumentException("not a phone digit: " + digits.charAt(i));
+            letters[i] = mapping[key];
+            count = Math.multiplyExact(count, (long) letters[i].length());
+        }
+        this.size = count;
+    }
+
+    long size() {
+        return size;
+    }
+
+    String get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + " of " + size);
+        char[] out = new char[letters.length];
+        for (int pos = letters.length - 1; pos >= 0; pos--) {
+            int radix = letters[pos].length();
+            out[pos] = letters[pos].charAt((int) (index % radix));
+            index /= radix;
+        }
+        return new String(out);
+    }
+
+    Stream<String> stream() {
+        return StreamSupport.stream(new RangeSpliterator(0, size), false);
+    }
+
+    Spliterator<String> spliterator() {
+        return new RangeSpliterator(0, size);
+    }
+
+    private final class RangeSpliterator implements Spliterator<String> {
+
+        private long from;
+        private final long to;
+
+        RangeSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (from >= to) return false;
+            action.accept(get(from++));
+            return true;
+        }
+
+        // odometer over the key positions: one increment per element instead of a full decode
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            if (from >= to) return;
+            int n = letters.length;
+            int[] digit = new int[n];
+            long index = from;
+            for (int pos = n - 1; pos >= 0; pos--) {
+                int radix = letters[pos].length();
+                digit[pos] = (int) (index % radix);
+                index /= radix;
+            }
+            char[] out = new char[n];
+            for (int pos = 0; pos < n; pos++) out[pos] = letters[pos].charAt(digit[pos]);
+
+            for (long i = from; i < to; i++) {
+                action.accept(new String(out));
+                for (int pos = n - 1; pos >= 0; pos--) {
+                    if (++digit[pos] < letters[pos].length()) {
+                        out[pos] = letters[pos].charAt(digit[pos]);
+                        break;
+                    }
+                    digit[pos] = 0;
+                    out[pos] = letters[pos].charAt(0);
+                }
+            }
+            from = to;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            long mid = (from + to) >>> 1;
+            if (mid <= from) return null;
+            RangeSpliterator prefix = new RangeSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
+
+/**
+ * Word list indexed by keypad digits. Entries (digit key, word) are sorted by key then word
+ * and stored as one flat buffer: header, key offsets, word offsets, key bytes, word bytes.
+ * Exact and prefix lookups binary-search the key column, and a prefix match is a contiguous
+ * range. The same layout is written by save() and memory-mapped by load(), so a saved
+ * index is usable without rebuilding or parsing. Words must be ASCII letters; others are
+ * skipped when building.
+ */
+final class T9Index {
+
+    private static final int MAGIC = 0x54394958; // "T9IX"
+    private static final int HEADER = 4 * Integer.BYTES;
+
+    private final ByteBuffer buf;
+    private final int count;
+    private final int keyOffsets;
+    private final int wordOffsets;
+    private final int keyBytes;
+    private final int wordBytes;
+
+    private T9Index(ByteBuffer buf) {
+        this.buf = buf;
+        if (buf.getInt(0) != MAGIC) throw new IllegalArgumentException("not a T9 index");
+        this.count = buf.getInt(4);
+        int keyLen = buf.getInt(8);
+        this.keyOffsets = HEADER;
+        this.wordOffsets = keyOffsets + (count + 1) * Integer.BYTES;
+        this.keyBytes = wordOffsets + (count + 1) * Integer.BYTES;
+        this.wordBytes = keyBytes + keyLen;
+    }
+
+    static T9Index build(Collection<String> words, String[] mapping) {
+        byte[] keypad = new byte[128];
+        for (int d = 0; d < mapping.length; d++) {
+            for (char ch : mapping[d].toCharArray()) keypad[ch] = (byte) ('0' + d);
+        }
+
+        TreeSet<String> unique = new TreeSet<>();
+        for (String word : words) {
+            String lower = word.toLowerCase(Locale.ROOT);
+            if (!lower.isEmpty() && lower.chars().allMatch(ch -> ch < 128 && keypad[ch] != 0)) unique.add(lower);
+        }
+        String[][] entries = new String[unique.size()][];
+        int n = 0;
+        long keyLen = 0, wordLen = 0;
+        for (String word : unique) {
+            byte[] key = new byte[word.length()];
+            for (int i = 0; i < key.length; i++) key[i] = keypad[word.charAt(i)];
+            entries[n++] = new String[] { new String(key, StandardCharsets.US_ASCII), word };
+            keyLen += key.length;
+            wordLen += word.length();
+        }
+        Arrays.sort(entries, (a, b) -> {
+            int c = a[0].compareTo(b[0]);
+            return c != 0 ? c : a[1].compareTo(b[1]);
+        });
+
+        long total = HEADER + 2L * (n + 1) * Integer.BYTES + keyLen + wordLen;
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("word list too large");
+        ByteBuffer buf = ByteBuffer.allocate((int) total);
+        buf.putInt(MAGIC).putInt(n).putInt((int) keyLen).putInt((int) wordLen);
+        int offset = 0;
+        for (String[] entry : entries) {
+            buf.putInt(offset);
+            offset += entry[0].length();
+        }
+        buf.putInt(offset);
+        offset = 0;
+        for (String[] entry : entries) {
+            buf.putInt(offset);
+            offset += entry[1].length();
+        }
+        buf.putInt(offset);
+        for (String[] entry : entries) buf.put(entry[0].getBytes(StandardCharsets.US_ASCII));
+        for (String[] entry : entries) buf.put(entry[1].getBytes(StandardCharsets.US_ASCII));
+        buf.clear();
+        return new T9Index(buf);
+    }
+
+    static T9Index load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new T9Index(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    void save(Path file) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            ByteBuffer src = buf.duplicate();
+            src.clear();
+            while (src.hasRemaining()) channel.write(src);
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    List<String> exact(String digits) {
+        byte[] key = digits.getBytes(StandardCharsets.US_ASCII);
+        return words(lowerBound(key, false), lowerBound(key, true), Integer.MAX_VALUE);
+    }
+
+    // words whose key starts with digits, in key order, at most limit of them
+    List<String> prefix(String digits, int limit) {
+        byte[] key = digits.getBytes(StandardCharsets.US_ASCII);
+        int from = lowerBound(key, false);
+        // matches are contiguous from `from`: find where they stop
+        int low = from,
+            high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startsWith(mid, key)) low = mid + 1;
+            else high = mid;
+        }
+        return words(from, low, limit);
+    }
+
+    private List<String> words(int from, int to, int limit) {
+        List<String> out = new ArrayList<>(Math.min(to - from, Math.min(limit, 1024)));
+        for (int i = from; i < to && out.size() < limit; i++) {
+            int start = buf.getInt(wordOffsets + i * Integer.BYTES);
+            int end = buf.getInt(wordOffsets + (i + 1) * Integer.BYTES);
+            byte[] word = new byte[end - start];
+            for (int j = 0; j < word.length; j++) word[j] = buf.get(wordBytes + start + j);
+            out.add(new String(word, StandardCharsets.US_ASCII));
+        }
+        return out;
+    }
+
+    // first entry whose key is >= key (or > key when strict)
+    private int lowerBound(byte[] key, boolean strict) {
+        int low = 0,
+            high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(mid, key);
+            if (c < 0 || (strict && c == 0)) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private int compare(int entry, byte[] key) {
+        int start = buf.getInt(keyOffsets + entry * Integer.BYTES);
+        int end = buf.getInt(keyOffsets + (entry + 1) * Integer.BYTES);
+        int len = end - start;
+        for (int i = 0, n = Math.min(len, key.length); i < n; i++) {
+            int c = buf.get(keyBytes + start + i) - key[i];
+            if (c != 0) return c;
+        }
+        return len - key.length;
+    }
+
+    private boolean startsWith(int entry, byte[] key) {
+        int start = buf.getInt(keyOffsets + entry * Integer.BYTES);
+        int end = buf.getInt(keyOffsets + (entry + 1) * Integer.BYTES);
+        if (end - start < key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (buf.get(keyBytes + start + i) != key[i]) return false;
+        }
+        return true;
+    }
+}
+
+// Usage: java T9IndexBenchmark [wordlist] [index file]
+// Builds an index (from /usr/share/dict/words or synthetic words), saves and maps it back,
+// then times random exact and prefix lookups.
+class T9IndexBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "/usr/share/dict/words");
+        Path indexFile = Paths.get(args.length > 1 ? args[1] : System.getProperty("java.io.tmpdir"), "t9.idx");
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> words = new ArrayList<>();
+        if (Files.exists(source)) {
+            words = Files.readAllLines(source, StandardCharsets.ISO_8859_1);
+        } else {
+            for (int i = 0; i < 500_000; i++) {
+                char[] word = new char[3 + random.nextInt(8)];
+                for (int j = 0; j < word.length; j++) word[j] = (char) ('a' + random.nextInt(26));
+                words.add(new String(word));
+            }
+        }
+
+        long t0 = System.nanoTime();
+        T9Index built = new Solution().t9Index(words);
+        long t1 = System.nanoTime();
+        built.save(indexFile);
+        long t2 = System.nanoTime();
+        T9Index index = T9Index.load(indexFile);
+        long t3 = System.nanoTime();
+        System.out.printf(
+            "%d words: build %.1f ms, save %.1f ms, load %.3f ms, %d bytes%n",
+            index.size(),
+            (t1 - t0) / 1e6,
+            (t2 - t1) / 1e6,
+            (t3 - t2) / 1e6,
+            Files.size(indexFile)
+        );
+
+        String[] queries = new String[100_000];
+        for (int i = 0; i < queries.length; i++) {
+            char[] digits = new char[1 + random.nextInt(6)];
+            for (int j = 0; j < digits.length; j++) digits[j] = (char) ('2' + random.nextInt(8));
+            queries[i] = new String(digits);
+        }
+        for (int run = 0; run < 3; run++) {
+            long hits = 0;
+            long start = System.nanoTime();
+            for (String query : queries) hits += index.exact(query).size();
+            long mid = System.nanoTime();
+            for (String query : queries) hits += index.prefix(query, 10).size();
+            long end = System.nanoTime();
+            System.out.printf(
+                "exact %.0f ns/query, prefix(10) %.0f ns/query, %d hits%n",
+                (mid - start) / (double) queries.length,
+                (end - mid) / (double) queries.length,
+                hits
+            );
+        }
+        Files.delete(indexFile);
+    }
 }
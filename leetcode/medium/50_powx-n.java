@@ -1,16 +1,281 @@
+import java.math.*;
+import java.util.*;
+
 class Solution {
 
     public double myPow(double x, int n) {
-        return helper(x, (long) n);
+        return Powers.pow(x, n);
+    }
+}
+
+/**
+ * Exponentiation by squaring, iterative throughout. Modular powers pick their arithmetic
+ * from the modulus: plain % below 2^31, Montgomery (R = 2^64, Math.multiplyHigh) for odd
+ * moduli below 2^62, shift-and-add otherwise. Matrix powers reuse the same arithmetic for
+ * linear recurrences. Batch methods run the exponent bits in the outer loop and the array
+ * in the inner, branch-free loop so the JIT can vectorize the double case.
+ */
+final class Powers {
+
+    private Powers() {}
+
+    static double pow(double x, long n) {
+        if (n < 0) {
+            // -Long.MIN_VALUE overflows: peel one factor off first
+            return 1 / (x * pow(x, -(n + 1)));
+        }
+        double result = 1;
+        while (n != 0) {
+            if ((n & 1) != 0) result *= x;
+            x *= x;
+            n >>>= 1;
+        }
+        return result;
+    }
+
+    static long modPow(long base, long exp, long mod) {
+        return Mod.of(mod).pow(base, exp);
+    }
+
+    // out[i] = bases[i]^n
+    static void pow(double[] bases, long n, double[] out) {
+        boolean negative = n < 0;
+        long e = negative ? -(n + 1) : n;
+        double[] square = bases.clone();
+        Arrays.fill(out, 0, bases.length, 1.0);
+        while (e != 0) {
+            if ((e & 1) != 0) {
+                for (int i = 0; i < bases.length; i++) out[i] *= square[i];
+            }
+            for (int i = 0; i < bases.length; i++) square[i] *= square[i];
+            e >>>= 1;
+        }
+        // same association as the scalar pow: 1 / (x * x^-(n + 1))
+        if (negative) {
+            for (int i = 0; i < bases.length; i++) out[i] = 1 / (bases[i] * out[i]);
+        }
+    }
+
+    // out[i] = bases[i]^exp mod mod
+    static void modPow(long[] bases, long exp, long mod, long[] out) {
+        if (exp < 0) throw new IllegalArgumentException("negative exponent");
+        Mod m = Mod.of(mod);
+        long[] square = new long[bases.length];
+        long one = m.toRep(1 % mod);
+        for (int i = 0; i < bases.length; i++) {
+            square[i] = m.toRep(Math.floorMod(bases[i], mod));
+            out[i] = one;
+        }
+        for (long e = exp; e != 0; e >>>= 1) {
+            if ((e & 1) != 0) {
+                for (int i = 0; i < bases.length; i++) out[i] = m.mul(out[i], square[i]);
+            }
+            for (int i = 0; i < bases.length; i++) square[i] = m.mul(square[i], square[i]);
+        }
+        for (int i = 0; i < bases.length; i++) out[i] = m.fromRep(out[i]);
     }
 
-    private static double helper(double a, long b) {
-        if (b == 0) 
-            return 1;
-        if (b < 0) 
-            return 1 / helper(a, -b);
-        if (b % 2 != 0) 
-            return a * helper(a * a, (b - 1) / 2);
-        return helper(a * a, b / 2);
+    // matrix^exp mod mod for a square matrix
+    static long[][] matrixPow(long[][] matrix, long exp, long mod) {
+        if (exp < 0) throw new IllegalArgumentException("negative exponent");
+        Mod m = Mod.of(mod);
+        int n = matrix.length;
+        long[][] base = new long[n][n];
+        long[][] result = new long[n][n];
+        for (int i = 0; i < n; i++) {
+            if (matrix[i].length != n) throw new IllegalArgumentException("matrix must be square");
+            for (int j = 0; j < n; j++) base[i][j] = m.toRep(Math.floorMod(matrix[i][j], mod));
+            result[i][i] = m.toRep(1 % mod);
+        }
+        for (long e = exp; e != 0; e >>>= 1) {
+            if ((e & 1) != 0) result = multiply(result, base, m);
+            base = multiply(base, base, m);
+        }
+        for (long[] row : result) {
+            for (int j = 0; j < n; j++) row[j] = m.fromRep(row[j]);
+        }
+        return result;
+    }
+
+    // F(n) mod mod via [[1,1],[1,0]]^n
+    static long fibonacci(long n, long mod) {
+        return matrixPow(new long[][] { { 1, 1 }, { 1, 0 } }, n, mod)[0][1];
+    }
+
+    private static long[][] multiply(long[][] a, long[][] b, Mod m) {
+        int n = a.length;
+        long[][] c = new long[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < n; k++) {
+                long aik = a[i][k];
+                if (aik == 0) continue;
+                for (int j = 0; j < n; j++) c[i][j] = m.add(c[i][j], m.mul(aik, b[k][j]));
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Residue arithmetic for one modulus. Values are kept in an internal representation
+     * (Montgomery form for the odd large case) between toRep and fromRep; zero is zero in
+     * every representation.
+     */
+    abstract static class Mod {
+
+        final long m;
+
+        Mod(long m) {
+            this.m = m;
+        }
+
+        static Mod of(long m) {
+            if (m <= 0) throw new IllegalArgumentException("modulus must be positive");
+            if (m <= Integer.MAX_VALUE) return new Small(m);
+            if ((m & 1) != 0 && m < (1L << 62)) return new Montgomery(m);
+            return new ShiftAdd(m);
+        }
+
+        abstract long mul(long a, long b);
+
+        long toRep(long a) {
+            return a;
+        }
+
+        long fromRep(long a) {
+            return a;
+        }
+
+        // a, b < m < 2^63: the sum can wrap, compare unsigned
+        long add(long a, long b) {
+            long s = a + b;
+            return Long.compareUnsigned(s, m) >= 0 ? s - m : s;
+        }
+
+        long pow(long base, long exp) {
+            if (exp < 0) throw new IllegalArgumentException("negative exponent");
+            long result = toRep(1 % m);
+            long square = toRep(Math.floorMod(base, m));
+            for (long e = exp; e != 0; e >>>= 1) {
+                if ((e & 1) != 0) result = mul(result, square);
+                square = mul(square, square);
+            }
+            return fromRep(result);
+        }
+    }
+
+    private static final class Small extends Mod {
+
+        Small(long m) {
+            super(m);
+        }
+
+        @Override
+        long mul(long a, long b) {
+            return a * b % m;
+        }
+    }
+
+    private static final class ShiftAdd extends Mod {
+
+        ShiftAdd(long m) {
+            super(m);
+        }
+
+        @Override
+        long mul(long a, long b) {
+            long result = 0;
+            for (; b != 0; b >>>= 1) {
+                if ((b & 1) != 0) result = add(result, a);
+                a = add(a, a);
+            }
+            return result;
+        }
+    }
+
+    private static final class Montgomery extends Mod {
+
+        private final long negInv; // -m^-1 mod 2^64
+        private final long r2; // 2^128 mod m
+
+        Montgomery(long m) {
+            super(m);
+            long inv = m; // correct to 3 bits for odd m, each Newton step doubles that
+            for (int i = 0; i < 5; i++) inv *= 2 - m * inv;
+            this.negInv = -inv;
+            long r = Long.remainderUnsigned(-m, m); // 2^64 mod m
+            this.r2 = new ShiftAdd(m).mul(r, r);
+        }
+
+        @Override
+        long toRep(long a) {
+            return mul(a, r2);
+        }
+
+        @Override
+        long fromRep(long a) {
+            return reduce(0, a);
+        }
+
+        @Override
+        long mul(long a, long b) {
+            return reduce(Math.multiplyHigh(a, b), a * b);
+        }
+
+        // (hi:lo) / 2^64 mod m, for hi:lo < m * 2^64
+        private long reduce(long hi, long lo) {
+            long t = lo * negInv;
+            long tmHi = Math.multiplyHigh(t, m) + ((t >> 63) & m); // unsigned high half, m < 2^63
+            long carry = lo != 0 ? 1 : 0; // lo + t*m == 0 mod 2^64
+            long res = hi + tmHi + carry;
+            return res >= m ? res - m : res;
+        }
+    }
+}
+
+// Usage: java PowersBenchmark [elements]
+// Checks Powers against Math.pow and BigInteger.modPow, then compares throughput.
+class PowersBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        SplittableRandom random = new SplittableRandom(42);
+        double[] bases = new double[n];
+        long[] ints = new long[n];
+        for (int i = 0; i < n; i++) {
+            bases[i] = 0.5 + random.nextDouble();
+            ints[i] = random.nextLong(Long.MAX_VALUE);
+        }
+        long exp = 1_000_003;
+        long mod = (1L << 61) - 1;
+        double[] out = new double[n];
+        long[] modOut = new long[n];
+
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            Powers.pow(bases, 37, out);
+            long t1 = System.nanoTime();
+            double check = 0;
+            for (int i = 0; i < n; i++) check += Math.pow(bases[i], 37);
+            long t2 = System.nanoTime();
+            Powers.modPow(ints, exp, mod, modOut);
+            long t3 = System.nanoTime();
+            BigInteger e = BigInteger.valueOf(exp), m = BigInteger.valueOf(mod);
+            int sample = Math.min(n, 1 << 14);
+            for (int i = 0; i < sample; i++) {
+                long expected = BigInteger.valueOf(ints[i]).modPow(e, m).longValue();
+                if (expected != modOut[i]) throw new IllegalStateException("modPow mismatch at " + i);
+            }
+            long t4 = System.nanoTime();
+            double sum = 0;
+            for (double v : out) sum += v;
+            if (Math.abs(sum - check) > 1e-9 * Math.abs(check)) throw new IllegalStateException("pow mismatch");
+            System.out.printf(
+                "pow: batch %.1f ns/elem, Math.pow %.1f ns/elem | modPow: batch %.1f ns/elem, BigInteger %.1f ns/elem%n",
+                (t1 - t0) / (double) n,
+                (t2 - t1) / (double) n,
+                (t3 - t2) / (double) n,
+                (t4 - t3) / (double) sample
+            );
+        }
     }
 }
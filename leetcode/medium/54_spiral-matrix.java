@@ -1,3 +1,10 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
 class Solution {
 
     public List<Integer> spiralOrder(int[][] matrix) {
@@ -34,4 +41,205 @@ class Solution {
         }
         return ans;
     }
+
+    // same order as spiralOrder, unboxed
+    public int[] spiralOrderArray(int[][] matrix) {
+        return SpiralMatrix.toArray(matrix);
+    }
+}
+
+/**
+ * Spiral order without boxing. toArray reads the matrix row by row and writes each element
+ * straight to its spiral position: within a row the middle run is one contiguous top or
+ * bottom leg, and the remaining cells land one slot further along their ring's side leg
+ * than the row above, so reads are sequential and writes walk a bounded set of lines.
+ * iterator() walks the spiral lazily with no output buffer, over an array or a mapped file.
+ */
+final class SpiralMatrix {
+
+    private static final int BAND_INTS = 1 << 28;
+
+    private SpiralMatrix() {}
+
+    static int[] toArray(int[][] matrix) {
+        int m = matrix.length;
+        if (m == 0) return new int[0];
+        int n = matrix[0].length;
+        int[] out = new int[m * n];
+        for (int r = 0; r < m; r++) {
+            int[] row = matrix[r];
+            int k = Math.min(r, m - 1 - r);
+            int midFrom = k,
+                midTo = n - 1 - k;
+            if (midFrom <= midTo) {
+                int h = m - 2 * k,
+                    w = n - 2 * k;
+                int start = ringStart(m, n, k);
+                if (r == k) {
+                    System.arraycopy(row, midFrom, out, start, w);
+                } else {
+                    // bottom leg runs right to left
+                    int base = start + (w - 1) + (h - 1) + (w - 1);
+                    for (int c = midFrom; c <= midTo; c++) out[base - (c - k)] = row[c];
+                }
+                for (int c = 0; c < midFrom; c++) out[index(m, n, r, c)] = row[c];
+                for (int c = midTo + 1; c < n; c++) out[index(m, n, r, c)] = row[c];
+            } else {
+                for (int c = 0; c < n; c++) out[index(m, n, r, c)] = row[c];
+            }
+        }
+        return out;
+    }
+
+    // rings before k are complete: each has perimeter 2(m - 2i) + 2(n - 2i) - 4
+    static int ringStart(int m, int n, int k) {
+        return (int) (2L * k * (m + n) - 4L * k * k);
+    }
+
+    // position of (r, c) in the spiral order of an m x n matrix
+    static int index(int m, int n, int r, int c) {
+        int k = Math.min(Math.min(r, c), Math.min(m - 1 - r, n - 1 - c));
+        int h = m - 2 * k,
+            w = n - 2 * k;
+        int i = r - k,
+            j = c - k;
+        int pos;
+        if (i == 0) pos = j;
+        else if (j == w - 1) pos = (w - 1) + i;
+        else if (i == h - 1) pos = (w - 1) + (h - 1) + (w - 1 - j);
+        else pos = 2 * (w - 1) + (h - 1) + (h - 1 - i);
+        return ringStart(m, n, k) + pos;
+    }
+
+    static PrimitiveIterator.OfInt iterator(int[][] matrix) {
+        int m = matrix.length;
+        return new SpiralIterator(m, m == 0 ? 0 : matrix[0].length, (r, c) -> matrix[r][c]);
+    }
+
+    // row-major big-endian int32 file, mapped in bands of whole rows
+    static PrimitiveIterator.OfInt iterator(Path file, int rows, int cols) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != (long) rows * cols * Integer.BYTES) {
+                throw new IllegalArgumentException(file + " is not " + rows + "x" + cols + " ints");
+            }
+            int rowsPerBand = Math.max(1, BAND_INTS / Math.max(cols, 1));
+            IntBuffer[] bands = new IntBuffer[(rows + rowsPerBand - 1) / rowsPerBand];
+            for (int b = 0; b < bands.length; b++) {
+                long firstRow = (long) b * rowsPerBand;
+                long bandRows = Math.min(rowsPerBand, rows - firstRow);
+                bands[b] = channel
+                    .map(FileChannel.MapMode.READ_ONLY, firstRow * cols * Integer.BYTES, bandRows * cols * Integer.BYTES)
+                    .asIntBuffer();
+            }
+            return new SpiralIterator(rows, cols, (r, c) -> bands[r / rowsPerBand].get((r % rowsPerBand) * cols + c));
+        }
+    }
+
+    // the four legs of spiralOrder as a resumable state machine
+    private static final class SpiralIterator implements PrimitiveIterator.OfInt {
+
+        private final IntBinaryOperator at;
+        private int top, bottom, left, right;
+        private int leg; // 0 top, 1 right, 2 bottom, 3 left
+        private int i;
+        private long remaining;
+
+        SpiralIterator(int rows, int cols, IntBinaryOperator at) {
+            this.at = at;
+            this.bottom = rows - 1;
+            this.right = cols - 1;
+            this.remaining = (long) rows * cols;
+            this.i = left;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (remaining == 0) throw new NoSuchElementException();
+            while (true) {
+                switch (leg) {
+                    case 0:
+                        if (i <= right) {
+                            remaining--;
+                            return at.applyAsInt(top, i++);
+                        }
+                        top++;
+                        turn(1, top);
+                        break;
+                    case 1:
+                        if (i <= bottom) {
+                            remaining--;
+                            return at.applyAsInt(i++, right);
+                        }
+                        right--;
+                        turn(2, right);
+                        break;
+                    case 2:
+                        if (top <= bottom && i >= left) {
+                            remaining--;
+                            return at.applyAsInt(bottom, i--);
+                        }
+                        if (top <= bottom) bottom--;
+                        turn(3, bottom);
+                        break;
+                    default:
+                        if (left <= right && i >= top) {
+                            remaining--;
+                            return at.applyAsInt(i--, left);
+                        }
+                        if (left <= right) left++;
+                        turn(0, left);
+                }
+            }
+        }
+
+        private void turn(int next, int start) {
+            leg = next;
+            i = start;
+        }
+    }
+}
+
+// Usage: java SpiralMatrixBenchmark [n]
+// n x n matrix (20000 needs about -Xmx4g): boxed spiralOrder vs int[] vs iterator.
+class SpiralMatrixBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int[][] matrix = new int[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) matrix[r][c] = r * n + c;
+        }
+        Solution solution = new Solution();
+        double cells = (double) n * n;
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            int[] flat = solution.spiralOrderArray(matrix);
+            long t1 = System.nanoTime();
+            PrimitiveIterator.OfInt it = SpiralMatrix.iterator(matrix);
+            long sum = 0;
+            for (int i = 0; it.hasNext(); i++) {
+                int v = it.nextInt();
+                if (v != flat[i]) throw new IllegalStateException("iterator disagrees at " + i);
+                sum += v;
+            }
+            long t2 = System.nanoTime();
+            String boxed = "skipped";
+            if (n <= 5_000) {
+                List<Integer> list = solution.spiralOrder(matrix);
+                boxed = String.format("%.2f ns/cell", (System.nanoTime() - t2) / cells);
+            }
+            System.out.printf(
+                "int[] %.2f ns/cell, iterator+check %.2f ns/cell, boxed %s (sum %d)%n",
+                (t1 - t0) / cells,
+                (t2 - t1) / cells,
+                boxed,
+                sum
+            );
+        }
+    }
 }
@@ -1,3 +1,10 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
 class Solution {
 
     public int[][] generateMatrix(int n) {
@@ -38,4 +45,137 @@ class Solution {
         }
         return matrix;
     }
+
+    // same matrix, every row filled independently from the closed form
+    public int[][] generateMatrixParallel(int n) {
+        return SpiralFill.matrix(n);
+    }
+}
+
+/**
+ * Closed-form spiral: cell (r, c) lies on ring k = min(r, c, n-1-r, n-1-c), rings before k
+ * hold 4k(n - k) values, and the offset inside the ring follows from which side the cell is
+ * on. Rows therefore fill independently: the middle run of row r is one ascending (top leg)
+ * or descending (bottom leg) sequence, the cells left and right of it belong to the side
+ * legs of outer rings. Rows go to int[][], a flat int[] or a mapped file, in parallel.
+ */
+final class SpiralFill {
+
+    private static final int BAND_ROWS_INTS = 1 << 26;
+
+    private SpiralFill() {}
+
+    static int[][] matrix(int n) {
+        int[][] matrix = new int[n][n];
+        IntStream.range(0, n).parallel().forEach(r -> fillRow(n, r, matrix[r], 0));
+        return matrix;
+    }
+
+    // row-major n * n values, n <= 46340
+    static int[] flat(int n) {
+        if ((long) n * n > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("n too large for one array");
+        int[] out = new int[n * n];
+        IntStream.range(0, n).parallel().forEach(r -> fillRow(n, r, out, r * n));
+        return out;
+    }
+
+    // writes big-endian int32 rows to file through mapped bands, so the matrix stays off-heap;
+    // values are still ints, so n * n is capped at Integer.MAX_VALUE cells
+    static void toFile(Path file, int n) throws IOException {
+        if ((long) n * n > Integer.MAX_VALUE) throw new IllegalArgumentException("values exceed int range");
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            int rowsPerBand = Math.max(1, BAND_ROWS_INTS / Math.max(n, 1));
+            int bands = (n + rowsPerBand - 1) / rowsPerBand;
+            long rowBytes = (long) n * Integer.BYTES;
+            try {
+                IntStream.range(0, bands).parallel().forEach(b -> {
+                    int from = b * rowsPerBand,
+                        to = Math.min(n, from + rowsPerBand);
+                    try {
+                        MappedByteBuffer band = channel.map(FileChannel.MapMode.READ_WRITE, from * rowBytes, (to - from) * rowBytes);
+                        IntBuffer ints = band.asIntBuffer();
+                        int[] row = new int[n];
+                        for (int r = from; r < to; r++) {
+                            fillRow(n, r, row, 0);
+                            ints.put(row);
+                        }
+                        band.force();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // values 1..n*n of spiral row r into out[offset, offset + n)
+    static void fillRow(int n, int r, int[] out, int offset) {
+        int k = Math.min(r, n - 1 - r);
+        int side = n - 2 * k;
+        int start = ringStart(n, k) + 1;
+        if (r == k) {
+            for (int c = k, v = start; c < n - k; c++, v++) out[offset + c] = v;
+        } else {
+            // bottom leg, right to left: the corner at c = n-1-k continues the right leg
+            int v = start + 3 * (side - 1);
+            for (int c = k; c < n - k; c++, v--) out[offset + c] = v;
+        }
+        for (int c = 0; c < k; c++) {
+            // left leg of ring c, read bottom to top
+            int s = n - 2 * c;
+            out[offset + c] = ringStart(n, c) + 1 + 3 * (s - 1) + (s - 1 - (r - c));
+        }
+        for (int c = n - k; c < n; c++) {
+            // right leg of ring kk, read top to bottom
+            int kk = n - 1 - c;
+            int s = n - 2 * kk;
+            out[offset + c] = ringStart(n, kk) + 1 + (s - 1) + (r - kk);
+        }
+    }
+
+    private static int ringStart(int n, int k) {
+        return 4 * k * (n - k);
+    }
+}
+
+// Usage: java SpiralFillBenchmark [n]
+// Sequential walker vs parallel closed form (int[][] and flat) on all cores; n = 30000 needs about -Xmx8g.
+class SpiralFillBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 30_000;
+        Solution solution = new Solution();
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            int[][] walked = solution.generateMatrix(n);
+            long t1 = System.nanoTime();
+            int[][] parallel = solution.generateMatrixParallel(n);
+            long t2 = System.nanoTime();
+            if (!Arrays.deepEquals(walked, parallel)) throw new IllegalStateException("closed form disagrees with walker");
+            walked = null;
+            parallel = null;
+            long t3 = System.nanoTime();
+            int[] flat = SpiralFill.flat(n);
+            long t4 = System.nanoTime();
+            System.out.printf(
+                "n=%d walker %.0f ms, parallel rows %.0f ms, parallel flat %.0f ms (%d cores, last=%d)%n",
+                n,
+                (t1 - t0) / 1e6,
+                (t2 - t1) / 1e6,
+                (t4 - t3) / 1e6,
+                Runtime.getRuntime().availableProcessors(),
+                flat[flat.length - 1]
+            );
+        }
+    }
 }
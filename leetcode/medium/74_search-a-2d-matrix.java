@@ -1,3 +1,5 @@
+import java.util.*;
+
 class Solution {
 
     public boolean searchMatrix(int[][] matrix, int target) {
@@ -21,4 +23,136 @@ class Solution {
         }
         return false;
     }
+
+    // build once, then answer many searchMatrix queries against the same matrix
+    public EytzingerIndex buildIndex(int[][] matrix) {
+        return EytzingerIndex.of(matrix);
+    }
+}
+
+/**
+ * Static search index for a row-major sorted matrix. Values are laid out in Eytzinger
+ * (BFS) order: node k has children 2k and 2k+1, so the top levels of every search share a
+ * few cache lines and the next probe address is known one level ahead. The descent is
+ * k = 2k + (b[k] < x), which the JIT compiles to a conditional move, with no division and
+ * no unpredictable branch. searchAll advances a group of queries one level at a time so
+ * their cache misses overlap instead of running back to back.
+ */
+final class EytzingerIndex {
+
+    static final int GROUP = 16;
+
+    private final int[] tree; // 1-based, tree[0] unused
+    private final int n;
+    private final int levels;
+
+    private EytzingerIndex(int[] tree, int n) {
+        this.tree = tree;
+        this.n = n;
+        this.levels = 32 - Integer.numberOfLeadingZeros(n);
+    }
+
+    static EytzingerIndex of(int[][] matrix) {
+        long size = 0;
+        for (int[] row : matrix) size += row.length;
+        // descents reach node 2n + 1, which must stay a positive int
+        if (size >= 1 << 30) throw new IllegalArgumentException("matrix too large: " + size + " values, limit is 2^30 - 1");
+        int n = (int) size;
+        int[] tree = new int[n + 1];
+        if (n == 0) return new EytzingerIndex(tree, 0);
+
+        // in-order walk of the implicit tree visits nodes in sorted order: fill from the rows
+        int k = 1;
+        while (2 * k <= n) k *= 2;
+        for (int[] row : matrix) {
+            for (int value : row) {
+                tree[k] = value;
+                if (2 * k + 1 <= n) {
+                    k = 2 * k + 1;
+                    while (2 * k <= n) k *= 2;
+                } else {
+                    while ((k & 1) == 1) k >>= 1;
+                    k >>= 1;
+                }
+            }
+        }
+        return new EytzingerIndex(tree, n);
+    }
+
+    int size() {
+        return n;
+    }
+
+    boolean contains(int target) {
+        int k = 1;
+        while (k <= n) k = 2 * k + (tree[k] < target ? 1 : 0);
+        return found(k, target);
+    }
+
+    boolean[] searchAll(int[] targets) {
+        boolean[] found = new boolean[targets.length];
+        int[] ks = new int[GROUP];
+        for (int from = 0; from < targets.length; from += GROUP) {
+            int g = Math.min(GROUP, targets.length - from);
+            Arrays.fill(ks, 0, g, 1);
+            // every path has levels or levels - 1 steps, so the bound check rarely mispredicts
+            for (int level = 0; level < levels; level++) {
+                for (int q = 0; q < g; q++) {
+                    int k = ks[q];
+                    if (k <= n) ks[q] = 2 * k + (tree[k] < targets[from + q] ? 1 : 0);
+                }
+            }
+            for (int q = 0; q < g; q++) found[from + q] = found(ks[q], targets[from + q]);
+        }
+        return found;
+    }
+
+    // k went right once past the lower bound: strip the trailing right turns and one left turn
+    private boolean found(int k, int target) {
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k != 0 && tree[k] == target;
+    }
+}
+
+// Usage: java EytzingerIndexBenchmark [rows] [cols] [queries]
+// Defaults to a 10000 x 10000 matrix (100M values, about -Xmx2g).
+class EytzingerIndexBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+        int[][] matrix = new int[rows][cols];
+        int value = 0;
+        for (int[] row : matrix) {
+            for (int c = 0; c < cols; c++) row[c] = value += 1 + (c & 15);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        int[] targets = new int[queries];
+        for (int i = 0; i < queries; i++) targets[i] = random.nextInt(value + 1);
+
+        Solution solution = new Solution();
+        long t0 = System.nanoTime();
+        EytzingerIndex index = solution.buildIndex(matrix);
+        System.out.printf("build %.0f ms for %d values%n", (System.nanoTime() - t0) / 1e6, index.size());
+
+        for (int run = 0; run < 3; run++) {
+            long hitsPlain = 0, hitsSingle = 0, hitsBatch = 0;
+            long t1 = System.nanoTime();
+            for (int target : targets) if (solution.searchMatrix(matrix, target)) hitsPlain++;
+            long t2 = System.nanoTime();
+            for (int target : targets) if (index.contains(target)) hitsSingle++;
+            long t3 = System.nanoTime();
+            for (boolean hit : index.searchAll(targets)) if (hit) hitsBatch++;
+            long t4 = System.nanoTime();
+            if (hitsPlain != hitsSingle || hitsPlain != hitsBatch) throw new IllegalStateException("index disagrees with searchMatrix");
+            System.out.printf(
+                "searchMatrix %.0f ns/q, contains %.0f ns/q, searchAll %.0f ns/q (%d hits)%n",
+                (t2 - t1) / (double) queries,
+                (t3 - t2) / (double) queries,
+                (t4 - t3) / (double) queries,
+                hitsPlain
+            );
+        }
+    }
 }
@@ -1,17 +1,26 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
 class Solution {
 
     public int myAtoi(String s) {
-        s = s.trim();
         int sign = 1,
             i = 0;
         long res = 0;
-        if (s.length() == 0) {
+        // skip what trim() would strip, without copying the string
+        while (i < s.length() && s.charAt(i) <= ' ') {
+            i++;
+        }
+        if (i == s.length()) {
             return 0;
         }
-        if (s.charAt(0) == '-') {
+        if (s.charAt(i) == '-') {
             sign = -1;
             i++;
-        } else if (s.charAt(0) == '+') {
+        } else if (s.charAt(i) == '+') {
             i++;
         }
         while (i < s.length()) {
@@ -29,3 +38,200 @@ class Solution {
         return (int) (sign * res);
     }
 }
+
+/**
+ * myAtoi over newline-separated records in a ByteBuffer: per record, skip leading bytes
+ * <= ' ', optional sign, digits until the first non-digit, clamp to the target range, and
+ * ignore the rest of the line. Eight digits at a time are checked and combined with SWAR
+ * arithmetic on one little-endian long; values accumulate negatively (like Long.parseLong)
+ * so Long.MIN_VALUE is reachable. One cursor per call, nothing allocated per number.
+ */
+final class BulkAtoi {
+
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIXES = 0x0606060606060606L;
+    private static final long THREES = 0x3333333333333333L;
+    private static final long EIGHT_DIGITS = 100_000_000L;
+    private static final int MAP_WINDOW = 1 << 30;
+
+    private final ByteBuffer buf;
+    private final int end;
+    private int pos;
+
+    private BulkAtoi(ByteBuffer buf) {
+        this.buf = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.pos = buf.position();
+        this.end = buf.limit();
+    }
+
+    // parses records in buf[position, limit) into out, returns how many were written and
+    // leaves buf positioned after the last parsed record, so a full out can resume there
+    static int parseInts(ByteBuffer buf, int[] out) {
+        return parseInts(buf, out, 0);
+    }
+
+    static int parseInts(ByteBuffer buf, int[] out, int offset) {
+        BulkAtoi cursor = new BulkAtoi(buf);
+        int count = offset;
+        while (cursor.pos < cursor.end && count < out.length) {
+            out[count++] = (int) cursor.next(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        buf.position(Math.min(cursor.pos, cursor.end));
+        return count - offset;
+    }
+
+    static int parseLongs(ByteBuffer buf, long[] out) {
+        return parseLongs(buf, out, 0);
+    }
+
+    static int parseLongs(ByteBuffer buf, long[] out, int offset) {
+        BulkAtoi cursor = new BulkAtoi(buf);
+        int count = offset;
+        while (cursor.pos < cursor.end && count < out.length) {
+            out[count++] = cursor.next(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        buf.position(Math.min(cursor.pos, cursor.end));
+        return count - offset;
+    }
+
+    // maps the file in windows that end on a newline; out grows by doubling, not per number
+    static int[] parseInts(Path file) throws IOException {
+        int[] out = new int[1024];
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long from = 0; from < size; ) {
+                BulkAtoi cursor = window(channel, from, size);
+                while (cursor.pos < cursor.end) {
+                    if (count == out.length) out = Arrays.copyOf(out, count * 2);
+                    out[count++] = (int) cursor.next(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                }
+                from += cursor.end;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    static long[] parseLongs(Path file) throws IOException {
+        long[] out = new long[1024];
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long from = 0; from < size; ) {
+                BulkAtoi cursor = window(channel, from, size);
+                while (cursor.pos < cursor.end) {
+                    if (count == out.length) out = Arrays.copyOf(out, count * 2);
+                    out[count++] = cursor.next(Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                from += cursor.end;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    // maps up to MAP_WINDOW bytes at from, cut after the last complete line
+    private static BulkAtoi window(FileChannel channel, long from, long size) throws IOException {
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(MAP_WINDOW, size - from));
+        int limit = window.limit();
+        if (from + limit < size) {
+            while (limit > 0 && window.get(limit - 1) != '\n') limit--;
+            if (limit == 0) throw new IllegalArgumentException("line longer than " + MAP_WINDOW + " bytes");
+        }
+        window.limit(limit);
+        return new BulkAtoi(window);
+    }
+
+    // parses the record at pos and moves pos past its newline
+    private long next(long min, long max) {
+        int i = pos;
+        while (i < end && buf.get(i) <= ' ' && buf.get(i) != '\n') i++;
+
+        boolean negative = false;
+        if (i < end) {
+            byte b = buf.get(i);
+            if (b == '-') {
+                negative = true;
+                i++;
+            } else if (b == '+') {
+                i++;
+            }
+        }
+
+        // accumulate as a negative number against limit
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long chunkmin = limit / EIGHT_DIGITS;
+        long res = 0;
+        boolean clamped = false;
+
+        while (i + Long.BYTES <= end) {
+            long word = buf.getLong(i);
+            if (((word & HIGH_NIBBLES) | (((word + SIXES) & HIGH_NIBBLES) >>> 4)) != THREES) break;
+            long chunk = eightDigits(word);
+            if (res < chunkmin || res * EIGHT_DIGITS < limit + chunk) {
+                clamped = true;
+                break;
+            }
+            res = res * EIGHT_DIGITS - chunk;
+            i += Long.BYTES;
+        }
+        while (!clamped && i < end) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) break;
+            if (res < multmin || res * 10 < limit + d) {
+                clamped = true;
+                break;
+            }
+            res = res * 10 - d;
+            i++;
+        }
+
+        while (i < end && buf.get(i) != '\n') i++;
+        pos = i + 1;
+        if (clamped) return negative ? min : max;
+        return negative ? res : -res;
+    }
+
+    // 8 ASCII digits, first digit in the lowest byte, to their value
+    private static long eightDigits(long word) {
+        long v = word - ZEROS;
+        v = (v * 10) + (v >>> 8);
+        return (((v & 0x000000FF000000FFL) * (100 + (1000000L << 32))) +
+            (((v >>> 16) & 0x000000FF000000FFL) * (1 + (10000L << 32)))) >>> 32;
+    }
+}
+
+// Usage: java BulkAtoiBenchmark <dir> [count]
+// Writes count random ints one per line, then compares BulkAtoi with BufferedReader + Integer.parseInt.
+class BulkAtoiBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"));
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100_000_000;
+        Path file = dir.resolve("ints.txt");
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                out.write(Integer.toString(random.nextInt()));
+                out.write('\n');
+            }
+        }
+
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            int[] bulk = BulkAtoi.parseInts(file);
+            long t1 = System.nanoTime();
+            int[] plain = new int[count];
+            try (BufferedReader in = Files.newBufferedReader(file)) {
+                String line;
+                int n = 0;
+                while ((line = in.readLine()) != null) plain[n++] = Integer.parseInt(line);
+            }
+            long t2 = System.nanoTime();
+            if (!Arrays.equals(bulk, plain)) throw new IllegalStateException("BulkAtoi disagrees with Integer.parseInt");
+            System.out.printf("%d ints: BulkAtoi %.0f ms, Integer.parseInt %.0f ms%n", count, (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+        Files.delete(file);
+    }
+}